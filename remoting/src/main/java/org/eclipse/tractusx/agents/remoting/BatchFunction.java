@@ -0,0 +1,59 @@
+// Copyright (c) 2022,2023 Contributors to the Eclipse Foundation
+//
+// See the NOTICE file(s) distributed with this work for additional
+// information regarding copyright ownership.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Apache License, Version 2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0.
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+// WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+// License for the specific language governing permissions and limitations
+// under the License.
+//
+// SPDX-License-Identifier: Apache-2.0
+package org.eclipse.tractusx.agents.remoting;
+
+import java.util.Map;
+
+/**
+ * Interface to in-process functions which compute a whole batch
+ * of bindings in one call. A class service whose target method is
+ * "apply" on a class implementing this interface receives the
+ * arguments as columns (one array or list per argument name, one
+ * element per binding) and returns the outputs as columns (one array
+ * or list per value path of the return values). Batches respect the batch
+ * size and the batch groups of the service.
+ * <p>
+ * Instances are created through the public no-argument constructor and live
+ * as long as the instanceScope of the service says. Instances of the singleton
+ * and query scope may be shared by concurrent invocations: they receive one
+ * batch at a time, unless the service is marked pure, which declares that apply
+ * is free of side effects and thread-safe and may be called concurrently.
+ * Instances of the invocation and pooled scope are never used concurrently.
+ */
+public interface BatchFunction {
+
+    /**
+     * the element type of an argument column, may be primitive
+     *
+     * @param argumentName the name of the argument
+     * @return element type of the column, String by default
+     */
+    default Class<?> getArgumentType(String argumentName) {
+        return String.class;
+    }
+
+    /**
+     * computes a batch
+     *
+     * @param arguments argument columns by argument name, arrays of the argument type
+     * @param size      the number of bindings in the batch
+     * @return output columns (arrays or lists of the batch size) by value path, a single column may use any key
+     * @throws Exception if the batch cannot be computed
+     */
+    Map<String, Object> apply(Map<String, Object> arguments, int size) throws Exception;
+
+}
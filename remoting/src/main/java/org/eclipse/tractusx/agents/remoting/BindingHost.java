@@ -20,6 +20,7 @@ import org.eclipse.rdf4j.query.MutableBindingSet;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface to any intermediate stpre
@@ -32,4 +33,23 @@ public interface BindingHost {
 
     Collection<MutableBindingSet> getBindings();
 
+    /**
+     * access
+     *
+     * @return a future which completes when the host can take further results, invocations
+     * pause (without holding a thread) until then
+     */
+    default CompletableFuture<Void> ready() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * notifies the host that an invocation has set the outputs of some bindings
+     *
+     * @param invocation the invocation
+     * @param bindings   the bindings which are final with respect to the invocation
+     */
+    default void completed(Invocation invocation, Collection<MutableBindingSet> bindings) {
+    }
+
 }
@@ -0,0 +1,263 @@
+// Copyright (c) 2022,2023 Contributors to the Eclipse Foundation
+//
+// See the NOTICE file(s) distributed with this work for additional
+// information regarding copyright ownership.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Apache License, Version 2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0.
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+// WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+// License for the specific language governing permissions and limitations
+// under the License.
+//
+// SPDX-License-Identifier: Apache-2.0
+package org.eclipse.tractusx.agents.remoting;
+
+import org.eclipse.rdf4j.common.iteration.AbstractCloseableIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.sail.SailException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * an iteration over result rows which are produced
+ * while the invocations of a query are still running.
+ * Rows are offered by the query executor as soon as they
+ * are complete and consumed by the (rdf4j) result writer.
+ * Offering a row never blocks. Once capacity rows are buffered,
+ * the stream is not writable until the consumer catches up, so that
+ * producers of the query can pause without holding a (shared) thread.
+ * Closing the stream early runs the close hook, e.g., to stop the invocations.
+ */
+// the rdf4j 4.x iteration api is deprecated as a whole, there is no replacement to extend yet
+@SuppressWarnings("deprecation")
+public class BindingStream extends AbstractCloseableIteration<BindingSet, QueryEvaluationException> {
+
+    /**
+     * default number of buffered rows
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * the rows in order of completion, also the monitor of the stream state
+     */
+    protected final Deque<BindingSet> rows = new ArrayDeque<>();
+
+    /**
+     * maximal number of buffered rows
+     */
+    protected final int capacity;
+
+    /**
+     * completes when the buffer has room again, guarded by rows
+     */
+    protected CompletableFuture<Void> writable = CompletableFuture.completedFuture(null);
+
+    /**
+     * the next row, if already taken from the queue
+     */
+    protected BindingSet next;
+
+    /**
+     * whether the end of the stream has been consumed
+     */
+    protected boolean finished;
+
+    /**
+     * the failure which ended the stream, null if successful
+     */
+    protected Throwable failure;
+
+    /**
+     * whether the stream has been ended by the producer, guarded by rows
+     */
+    protected boolean ended;
+
+    /**
+     * whether the stream has been closed by the consumer, guarded by rows
+     */
+    protected boolean closed;
+
+    /**
+     * what to do when the stream is closed
+     */
+    protected volatile Runnable onClose;
+
+    /**
+     * creates a stream with the default capacity
+     */
+    public BindingStream() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * creates a stream
+     *
+     * @param capacity maximal number of buffered rows
+     */
+    public BindingStream(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "/stream";
+    }
+
+    /**
+     * sets
+     *
+     * @param onClose what to do when the stream is closed
+     */
+    public void onClose(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    /**
+     * access
+     *
+     * @return a future which completes as soon as the buffer has room (or the stream is ended or closed)
+     */
+    public CompletableFuture<Void> whenWritable() {
+        synchronized (rows) {
+            return writable;
+        }
+    }
+
+    /**
+     * adds a complete row without waiting, also beyond the capacity.
+     * Rows of an ended or closed stream are dropped.
+     *
+     * @param row the projected row
+     */
+    public void offer(BindingSet row) {
+        synchronized (rows) {
+            if (ended || closed) {
+                return;
+            }
+            rows.add(row);
+            if (rows.size() >= capacity && writable.isDone()) {
+                writable = new CompletableFuture<>();
+            }
+            rows.notifyAll();
+        }
+    }
+
+    /**
+     * releases the producers which wait for room in the buffer
+     *
+     * @param room the future to complete, may be null
+     */
+    protected void release(CompletableFuture<Void> room) {
+        if (room != null) {
+            room.complete(null);
+        }
+    }
+
+    /**
+     * ends the stream, only the first call has an effect
+     *
+     * @param failure the failure of the execution, null if successful
+     */
+    public void finish(Throwable failure) {
+        CompletableFuture<Void> room;
+        synchronized (rows) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            this.failure = failure;
+            room = writable;
+            rows.notifyAll();
+        }
+        release(room);
+    }
+
+    @Override
+    public boolean hasNext() throws QueryEvaluationException {
+        if (next != null) {
+            return true;
+        }
+        if (finished || isClosed()) {
+            return false;
+        }
+        Throwable cause = null;
+        CompletableFuture<Void> room = null;
+        synchronized (rows) {
+            while (rows.isEmpty() && !ended && !closed) {
+                try {
+                    rows.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new QueryEvaluationException(e);
+                }
+            }
+            if (!rows.isEmpty()) {
+                next = rows.poll();
+                if (rows.size() < capacity) {
+                    room = writable;
+                }
+            } else if (closed) {
+                return false;
+            } else {
+                cause = failure;
+            }
+        }
+        if (next != null) {
+            release(room);
+            return true;
+        }
+        finished = true;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof QueryEvaluationException) {
+            throw (QueryEvaluationException) cause;
+        } else if (cause instanceof SailException) {
+            throw new QueryEvaluationException(cause.getMessage(), cause);
+        } else if (cause != null) {
+            throw new QueryEvaluationException(cause);
+        }
+        return false;
+    }
+
+    @Override
+    public BindingSet next() throws QueryEvaluationException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        BindingSet row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void handleClose() throws QueryEvaluationException {
+        CompletableFuture<Void> room;
+        synchronized (rows) {
+            closed = true;
+            rows.clear();
+            room = writable;
+            rows.notifyAll();
+        }
+        release(room);
+        next = null;
+        Runnable hook = onClose;
+        if (hook != null) {
+            hook.run();
+        }
+    }
+}
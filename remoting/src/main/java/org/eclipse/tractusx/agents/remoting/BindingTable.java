@@ -0,0 +1,426 @@
+// Copyright (c) 2022,2023 Contributors to the Eclipse Foundation
+//
+// See the NOTICE file(s) distributed with this work for additional
+// information regarding copyright ownership.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Apache License, Version 2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0.
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+// WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+// License for the specific language governing permissions and limitations
+// under the License.
+//
+// SPDX-License-Identifier: Apache-2.0
+package org.eclipse.tractusx.agents.remoting;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.AbstractBindingSet;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MutableBindingSet;
+import org.eclipse.rdf4j.query.impl.SimpleBinding;
+import org.eclipse.tractusx.agents.remoting.util.BatchKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * a columnar store of the bindings of a query. Each variable
+ * is assigned a dense slot when it is first seen (usually at plan time)
+ * and its values are kept in one array per slot, indexed by row.
+ * The rows are exposed as lightweight mutable binding sets for
+ * compatibility with the binding host interface.
+ */
+public class BindingTable {
+
+    /**
+     * the slot of each variable name
+     */
+    protected final Map<String, Integer> slots = new ConcurrentHashMap<>();
+
+    /**
+     * the variable name of each slot
+     */
+    protected volatile String[] names = new String[0];
+
+    /**
+     * the values of each slot, indexed by row
+     */
+    protected volatile Value[][] columns = new Value[0][];
+
+    /**
+     * the rows
+     */
+    protected final List<MutableBindingSet> rows = new ArrayList<>();
+
+    /**
+     * the allocated length of the columns
+     */
+    protected int capacity = 16;
+
+    @Override
+    public String toString() {
+        return super.toString() + "/table";
+    }
+
+    /**
+     * access the slot of a variable, assigns a new slot if the variable is not yet known
+     *
+     * @param name name of the variable
+     * @return slot of the variable
+     */
+    public int slot(String name) {
+        Integer slot = slots.get(name);
+        if (slot != null) {
+            return slot;
+        }
+        synchronized (this) {
+            slot = slots.get(name);
+            if (slot == null) {
+                slot = names.length;
+                String[] newNames = Arrays.copyOf(names, slot + 1);
+                newNames[slot] = name;
+                Value[][] newColumns = Arrays.copyOf(columns, slot + 1);
+                newColumns[slot] = new Value[capacity];
+                columns = newColumns;
+                names = newNames;
+                slots.put(name, slot);
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * looks up the slot of a variable
+     *
+     * @param name name of the variable
+     * @return slot of the variable, -1 if the variable is not known
+     */
+    public int findSlot(String name) {
+        Integer slot = slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * adds an empty row
+     *
+     * @return the new row
+     */
+    public synchronized Row addRow() {
+        int index = rows.size();
+        if (index == capacity) {
+            capacity = capacity * 2;
+            Value[][] newColumns = new Value[columns.length][];
+            for (int slot = 0; slot < columns.length; slot++) {
+                newColumns[slot] = Arrays.copyOf(columns[slot], capacity);
+            }
+            columns = newColumns;
+        }
+        Row row = new Row(index);
+        rows.add(row);
+        return row;
+    }
+
+    /**
+     * adds a row with the bindings of a given binding set
+     *
+     * @param source the binding set to copy
+     * @return the new row
+     */
+    public Row addRow(BindingSet source) {
+        Row row = addRow();
+        for (Binding binding : source) {
+            row.addBinding(binding);
+        }
+        return row;
+    }
+
+    /**
+     * replaces the rows by their join with a block of binding sets (e.g. a VALUES clause).
+     * The block is hashed on the variables which it shares with the table, i.e., which
+     * are bound in some row (slots which are merely assigned at plan time do not count), and probed
+     * with each row. Binding sets and rows which leave a shared variable unbound are
+     * compatible with any value. Without shared variables, this is a cross product.
+     * Rows which are handed out before are invalid afterwards, so this is meant for plan time.
+     *
+     * @param block      the binding sets to join
+     * @param blockNames the variables of the block
+     */
+    public synchronized void join(Iterable<BindingSet> block, Collection<String> blockNames) {
+        String[] shared = blockNames.stream().filter(this::isBound).toArray(String[]::new);
+        int[] sharedSlots = Arrays.stream(shared).mapToInt(this::findSlot).toArray();
+        // build: fully bound binding sets are hashed, the others are checked one by one
+        Map<BatchKey<Value>, List<BindingSet>> hashed = new HashMap<>();
+        List<BindingSet> partial = new ArrayList<>();
+        List<BindingSet> all = new ArrayList<>();
+        for (BindingSet candidate : block) {
+            all.add(candidate);
+            Value[] key = Arrays.stream(shared).map(candidate::getValue).toArray(Value[]::new);
+            if (Arrays.stream(key).allMatch(Objects::nonNull)) {
+                hashed.computeIfAbsent(new BatchKey<>(key), any -> new ArrayList<>()).add(candidate);
+            } else {
+                partial.add(candidate);
+            }
+        }
+        int[] blockSlots = blockNames.stream().mapToInt(this::slot).toArray();
+        String[] blockArray = blockNames.toArray(new String[0]);
+        // probe: the old rows are read from the old columns while the new rows are appended
+        Value[][] old = columns;
+        int oldSize = rows.size();
+        Value[][] fresh = new Value[old.length][];
+        for (int slot = 0; slot < fresh.length; slot++) {
+            fresh[slot] = new Value[capacity];
+        }
+        columns = fresh;
+        rows.clear();
+        for (int index = 0; index < oldSize; index++) {
+            final int left = index;
+            Value[] key = Arrays.stream(sharedSlots).mapToObj(slot -> old[slot][left]).toArray(Value[]::new);
+            List<BindingSet> matches;
+            if (Arrays.stream(key).allMatch(Objects::nonNull)) {
+                matches = new ArrayList<>(hashed.getOrDefault(new BatchKey<>(key), List.of()));
+                for (BindingSet candidate : partial) {
+                    if (isCompatible(candidate, shared, key)) {
+                        matches.add(candidate);
+                    }
+                }
+            } else {
+                matches = new ArrayList<>();
+                for (BindingSet candidate : all) {
+                    if (isCompatible(candidate, shared, key)) {
+                        matches.add(candidate);
+                    }
+                }
+            }
+            for (BindingSet match : matches) {
+                Row row = addRow();
+                for (int slot = 0; slot < old.length; slot++) {
+                    row.setValue(slot, old[slot][left]);
+                }
+                for (int pos = 0; pos < blockSlots.length; pos++) {
+                    Value value = match.getValue(blockArray[pos]);
+                    if (value != null) {
+                        row.setValue(blockSlots[pos], value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * removes the rows which do not satisfy a condition.
+     * Rows which are handed out before are invalid afterwards, so this is meant for plan time.
+     *
+     * @param condition the condition on the rows to keep
+     */
+    public synchronized void retain(Predicate<? super MutableBindingSet> condition) {
+        boolean[] keep = new boolean[rows.size()];
+        for (int index = 0; index < keep.length; index++) {
+            keep[index] = condition.test(rows.get(index));
+        }
+        Value[][] old = columns;
+        Value[][] fresh = new Value[old.length][];
+        for (int slot = 0; slot < fresh.length; slot++) {
+            fresh[slot] = new Value[capacity];
+        }
+        columns = fresh;
+        rows.clear();
+        for (int index = 0; index < keep.length; index++) {
+            if (keep[index]) {
+                Row row = addRow();
+                for (int slot = 0; slot < old.length; slot++) {
+                    row.setValue(slot, old[slot][index]);
+                }
+            }
+        }
+    }
+
+    /**
+     * checks whether a variable is bound in any row
+     *
+     * @param name name of the variable
+     * @return true if the variable has a slot with at least one value
+     */
+    protected boolean isBound(String name) {
+        int slot = findSlot(name);
+        if (slot < 0) {
+            return false;
+        }
+        Value[] column = columns[slot];
+        for (int index = 0; index < rows.size(); index++) {
+            if (column[index] != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * checks whether a binding set agrees with a row on the shared variables
+     *
+     * @param candidate the binding set
+     * @param shared    the shared variables
+     * @param key       the values of the row for the shared variables, null if unbound
+     * @return true if no shared variable is bound to different values
+     */
+    protected static boolean isCompatible(BindingSet candidate, String[] shared, Value[] key) {
+        for (int pos = 0; pos < shared.length; pos++) {
+            Value value = candidate.getValue(shared[pos]);
+            if (value != null && key[pos] != null && !value.equals(key[pos])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * access
+     *
+     * @return unmodifiable view of the rows, add rows using addRow
+     */
+    public List<MutableBindingSet> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * access
+     *
+     * @return number of rows
+     */
+    public synchronized int size() {
+        return rows.size();
+    }
+
+    /**
+     * a row of the table which reads and writes the columns
+     */
+    public class Row extends AbstractBindingSet implements MutableBindingSet {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * the index of the row in the columns
+         */
+        protected final int index;
+
+        /**
+         * creates a row
+         *
+         * @param index the index of the row in the columns
+         */
+        protected Row(int index) {
+            this.index = index;
+        }
+
+        /**
+         * access
+         *
+         * @return the table of the row
+         */
+        public BindingTable getTable() {
+            return BindingTable.this;
+        }
+
+        /**
+         * reads a slot
+         *
+         * @param slot the slot of the variable
+         * @return bound value, null if unbound
+         */
+        public Value getValue(int slot) {
+            Value[][] current = columns;
+            return slot >= 0 && slot < current.length ? current[slot][index] : null;
+        }
+
+        /**
+         * writes a slot
+         *
+         * @param slot  the slot of the variable
+         * @param value value to bind, null to unbind
+         */
+        public void setValue(int slot, Value value) {
+            columns[slot][index] = value;
+        }
+
+        @Override
+        public Value getValue(String name) {
+            return getValue(findSlot(name));
+        }
+
+        @Override
+        public Iterator<Binding> iterator() {
+            List<Binding> bindings = new ArrayList<>();
+            String[] currentNames = names;
+            for (int slot = 0; slot < currentNames.length; slot++) {
+                Value value = getValue(slot);
+                if (value != null) {
+                    bindings.add(new SimpleBinding(currentNames[slot], value));
+                }
+            }
+            return bindings.iterator();
+        }
+
+        @Override
+        public Set<String> getBindingNames() {
+            Set<String> bound = new LinkedHashSet<>();
+            String[] currentNames = names;
+            for (int slot = 0; slot < currentNames.length; slot++) {
+                if (getValue(slot) != null) {
+                    bound.add(currentNames[slot]);
+                }
+            }
+            return bound;
+        }
+
+        @Override
+        public Binding getBinding(String name) {
+            Value value = getValue(name);
+            return value == null ? null : new SimpleBinding(name, value);
+        }
+
+        @Override
+        public boolean hasBinding(String name) {
+            return getValue(name) != null;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (int slot = 0; slot < names.length; slot++) {
+                if (getValue(slot) != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public void addBinding(Binding binding) {
+            setValue(slot(binding.getName()), binding.getValue());
+        }
+
+        @Override
+        public void setBinding(String name, Value value) {
+            setValue(slot(name), value);
+        }
+
+        @Override
+        public void setBinding(Binding binding) {
+            addBinding(binding);
+        }
+    }
+}
@@ -32,7 +32,6 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
@@ -45,36 +44,52 @@ import org.eclipse.tractusx.agents.remoting.callback.CallbackController;
 import org.eclipse.tractusx.agents.remoting.callback.CallbackToken;
 import org.eclipse.tractusx.agents.remoting.config.ArgumentComparator;
 import org.eclipse.tractusx.agents.remoting.config.ArgumentConfig;
+import org.eclipse.tractusx.agents.remoting.config.ResultConfig;
 import org.eclipse.tractusx.agents.remoting.config.ReturnValueConfig;
 import org.eclipse.tractusx.agents.remoting.config.ServiceConfig;
 import org.eclipse.tractusx.agents.remoting.util.BatchKey;
+import org.eclipse.tractusx.agents.remoting.util.ClassTarget;
+import org.eclipse.tractusx.agents.remoting.util.DataTypeConverter;
+import org.eclipse.tractusx.agents.remoting.util.JsonPathFilter;
+import org.eclipse.tractusx.agents.remoting.util.PathAccessor;
+import org.eclipse.tractusx.agents.remoting.util.ResultCache;
+import org.eclipse.tractusx.agents.remoting.util.XmlPathFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringWriter;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import java.util.stream.Stream;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -126,6 +141,27 @@ public class Invocation {
      * the connection
      */
     protected final RemotingSailConnection connection;
+    /**
+     * counts the batches of all (pipelined) executions of the invocation
+     */
+    protected final AtomicInteger batchCounter = new AtomicInteger(0);
+    /**
+     * the instances of class services in query scope
+     */
+    public Map<ServiceConfig, Object> instances = new HashMap<>();
+    /**
+     * whether the query has enough results, so no further batches should be started
+     */
+    public AtomicBoolean cancelled = new AtomicBoolean(false);
+    /**
+     * the asynchronous calls whose callbacks are awaited, with their batches
+     */
+    protected final Map<CallbackToken, Collection<MutableBindingSet>> outstanding = new ConcurrentHashMap<>();
+
+    /**
+     * the flights led by this invocation which have not landed yet, by leading binding
+     */
+    protected final Map<MutableBindingSet, Flight> leading = Collections.synchronizedMap(new IdentityHashMap<>());
 
     public static ObjectMapper objectMapper = new ObjectMapper();
 
@@ -212,13 +248,18 @@ public class Invocation {
                         }
                     case "http://www.w3.org/2001/XMLSchema#dateTime":
                         try {
-                            return (TARGET) objectMapper.getNodeFactory().textNode(objectMapper.getDateFormat().format(objectMapper.getDateFormat().parse(binding.stringValue())));
+                            // date formats are not thread-safe
+                            synchronized (objectMapper) {
+                                return (TARGET) objectMapper.getNodeFactory().textNode(objectMapper.getDateFormat().format(objectMapper.getDateFormat().parse(binding.stringValue())));
+                            }
                         } catch (ParseException pe) {
                             throw new SailException(String.format("Could not convert %s to json date.", binding), pe);
                         }
                     case "http://www.w3.org/2001/XMLSchema#date":
                         try {
-                            return (TARGET) objectMapper.getNodeFactory().textNode(dateFormat.format(dateFormat.parse(binding.stringValue())));
+                            synchronized (dateFormat) {
+                                return (TARGET) objectMapper.getNodeFactory().textNode(dateFormat.format(dateFormat.parse(binding.stringValue())));
+                            }
                         } catch (ParseException pe) {
                             throw new SailException(String.format("Could not convert %s to json date.", binding), pe);
                         }
@@ -248,6 +289,165 @@ public class Invocation {
         return super.toString() + "/invocation";
     }
 
+    /**
+     * stops the invocation: no further batches are started and
+     * the callbacks of outstanding asynchronous calls are no longer awaited.
+     * Calls which lead a flight followed by other invocations are detached instead,
+     * i.e., they go on so that their followers get the outputs.
+     */
+    public void cancel() {
+        cancelled.set(true);
+        for (Map.Entry<CallbackToken, Collection<MutableBindingSet>> call : outstanding.entrySet()) {
+            if (!isFollowed(call.getValue())) {
+                CallbackController.cancel(call.getKey());
+            }
+        }
+    }
+
+    /**
+     * checks whether a batch leads a flight which other invocations follow
+     *
+     * @param batch the batch
+     * @return whether the batch must be executed although this invocation is cancelled
+     */
+    protected boolean isFollowed(Collection<MutableBindingSet> batch) {
+        if (leading.isEmpty()) {
+            return false;
+        }
+        for (MutableBindingSet binding : batch) {
+            Flight flight = leading.get(binding);
+            if (flight != null && flight.followed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * reads a variable from a binding that may be shared with concurrently running invocations
+     *
+     * @param binding the binding set
+     * @param name    name of the variable
+     * @return bound value, null if not bound
+     */
+    protected static Value getValue(MutableBindingSet binding, String name) {
+        if (binding instanceof BindingTable.Row) {
+            // table slots are plain array cells which need no lock
+            return binding.getValue(name);
+        }
+        synchronized (binding) {
+            return binding.getValue(name);
+        }
+    }
+
+    /**
+     * reads a variable using its slot in the binding table, if any
+     *
+     * @param binding the binding set
+     * @param slot    slot of the variable, -1 if the binding is not a table row
+     * @param name    name of the variable
+     * @return bound value, null if not bound
+     */
+    protected static Value getValue(MutableBindingSet binding, int slot, String name) {
+        if (slot >= 0) {
+            return ((BindingTable.Row) binding).getValue(slot);
+        }
+        return getValue(binding, name);
+    }
+
+    /**
+     * writes a variable into a binding that may be shared with concurrently running invocations
+     *
+     * @param binding the binding set
+     * @param name    name of the variable
+     * @param value   value to bind
+     */
+    protected static void setValue(MutableBindingSet binding, String name, Value value) {
+        if (binding instanceof BindingTable.Row) {
+            binding.addBinding(name, value);
+            return;
+        }
+        synchronized (binding) {
+            binding.addBinding(name, value);
+        }
+    }
+
+    /**
+     * writes a variable using its slot in the binding table, if any
+     *
+     * @param binding the binding set
+     * @param slot    slot of the variable, -1 if the binding is not a table row
+     * @param name    name of the variable
+     * @param value   value to bind
+     */
+    protected static void setValue(MutableBindingSet binding, int slot, String name, Value value) {
+        if (slot >= 0) {
+            ((BindingTable.Row) binding).setValue(slot, value);
+        } else {
+            setValue(binding, name, value);
+        }
+    }
+
+    /**
+     * resolves the slot of a variable in the table which holds the given bindings
+     *
+     * @param bindings the bindings
+     * @param name     name of the variable
+     * @return slot of the variable, -1 if the bindings are not table rows
+     */
+    protected static int slotOf(Collection<MutableBindingSet> bindings, String name) {
+        Iterator<MutableBindingSet> first = bindings.iterator();
+        if (first.hasNext()) {
+            MutableBindingSet binding = first.next();
+            if (binding instanceof BindingTable.Row) {
+                return ((BindingTable.Row) binding).getTable().slot(name);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * checks whether this invocation consumes an output of another invocation
+     *
+     * @param other the other invocation
+     * @return true if one of our unbound inputs is produced by the other invocation
+     */
+    public boolean dependsOn(Invocation other) {
+        if (other == this) {
+            return false;
+        }
+        for (Var input : inputs.values()) {
+            if (!input.hasValue()) {
+                for (Var output : other.outputs.keySet()) {
+                    if (input.getName().equals(output.getName())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * checks whether this invocation may be executed in several parts as soon as
+     * parts of its inputs are ready. Invocations whose batches are grouped by
+     * argument values need to see all bindings at once.
+     *
+     * @return true if the bindings may be executed in parts
+     */
+    public boolean supportsPipelining() {
+        return service.getArguments().values().stream().noneMatch(ArgumentConfig::isFormsBatchGroup);
+    }
+
+    /**
+     * folds the status of a (partial) call into the overall success code
+     *
+     * @param status http-like status code
+     */
+    protected synchronized void reportStatus(int status) {
+        success = Math.max(success, status);
+    }
+
     /**
      * traverse path
      *
@@ -333,74 +533,111 @@ public class Invocation {
      * @throws SailException in case the conversion cannot be done
      */
     public Value convertOutputToValue(Object target, String resultKey, IRI output) throws SailException {
-        if (service.getResult().getOutputProperty() != null) {
-            String[] resultPath = service.getResult().getOutputProperty().split("\\.");
-            target = traversePath(target, resultPath);
-        }
+        target = service.getResult().getOutputAccessor().traverse(target);
+        return convertOutputToValue(selectResult(target, resultKey, null), output);
+    }
+
+    /**
+     * converter from a selected result to a literal
+     *
+     * @param target the result of a single binding
+     * @param output config name to use for mapping
+     * @return mapped value
+     * @throws SailException in case the conversion cannot be done
+     */
+    protected Value convertOutputToValue(Object target, IRI output) throws SailException {
         ReturnValueConfig cf = service.getResult().getOutputs().get(output.stringValue());
         if (cf == null) {
             throw new SailException(String.format("No output specification for %s", output));
         }
-        if (resultKey != null) {
-            if (target.getClass().isArray()) {
-                if (service.getResult().getResultIdProperty() != null) {
-                    String[] resultPath = service.getResult().getResultIdProperty().split("\\.");
-                    target = Arrays.stream(((Object[]) target)).filter(tt -> resultKey.equals(convertObjectToString(traversePath(tt, resultPath))))
-                            .findFirst().get();
-                } else {
-                    try {
-                        target = Array.get(target, Integer.parseInt(resultKey));
-                    } catch (NumberFormatException nfwe) {
-                        throw new SailException(String.format("Could not access index %s of target %s which should be integer.", resultKey, target));
-                    }
+        return convertOutputToValue(target, connection.remotingSail.getValueFactory(), cf.getAccessor(), cf.getConverter(), cf.getDataType());
+    }
+
+    /**
+     * indexes the (batch) results by their result id
+     *
+     * @param target the results under the output property
+     * @return map from result id to the first result carrying that id, null if results are not correlated by id
+     */
+    protected Map<String, Object> indexResults(Object target) {
+        ResultConfig result = service.getResult();
+        if (result.getResultIdProperty() == null) {
+            return null;
+        }
+        Map<String, Object> index = new HashMap<>();
+        if (target.getClass().isArray()) {
+            for (Object element : (Object[]) target) {
+                indexResult(index, element);
+            }
+        } else if (target instanceof ArrayNode) {
+            for (JsonNode element : (ArrayNode) target) {
+                indexResult(index, element);
+            }
+        } else if (target instanceof Element) {
+            NodeList nl = ((Element) target).getChildNodes();
+            for (int count = 0; count < nl.getLength(); count++) {
+                if (nl.item(count) instanceof Element) {
+                    indexResult(index, nl.item(count));
                 }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * adds a single result to the index, results without an id are ignored
+     *
+     * @param index   the index
+     * @param element the result
+     */
+    private void indexResult(Map<String, Object> index, Object element) {
+        try {
+            index.putIfAbsent(convertObjectToString(service.getResult().getResultIdAccessor().traverse(element)), element);
+        } catch (SailException e) {
+            if (logger.isTraceEnabled()) {
+                logger.trace(String.format("Result %s has no id under property %s.", element, service.getResult().getResultIdProperty()));
+            }
+        }
+    }
+
+    /**
+     * selects the result of a single binding from the (batch) results
+     *
+     * @param target    the results under the output property
+     * @param resultKey eventual batch selector
+     * @param index     pre-computed index of the results, null if it should be computed on demand
+     * @return the selected result
+     * @throws SailException in case the result cannot be found
+     */
+    protected Object selectResult(Object target, String resultKey, Map<String, Object> index) throws SailException {
+        if (resultKey == null) {
+            return target;
+        }
+        if (!target.getClass().isArray() && !(target instanceof ArrayNode) && !(target instanceof Element)) {
+            return target;
+        }
+        if (service.getResult().getResultIdProperty() != null) {
+            if (index == null) {
+                index = indexResults(target);
+            }
+            Object selected = index.get(resultKey);
+            if (selected == null) {
+                throw new SailException(String.format("Could not find result with key %s under property %s.", resultKey, service.getResult().getResultIdProperty()));
+            }
+            return selected;
+        }
+        try {
+            int position = Integer.parseInt(resultKey);
+            if (target.getClass().isArray()) {
+                return Array.get(target, position);
             } else if (target instanceof ArrayNode) {
-                if (service.getResult().getResultIdProperty() != null) {
-                    String[] resultPath = service.getResult().getResultIdProperty().split("\\.");
-                    ArrayNode array = (ArrayNode) target;
-                    boolean found = false;
-                    for (int count = 0; count < array.size(); count++) {
-                        if (resultKey.equals(convertObjectToString(traversePath(array.get(count), resultPath)))) {
-                            target = array.get(count);
-                            found = true;
-                            break;
-                        }
-                    }
-                    if (!found) {
-                        throw new SailException(String.format("Could not find result with key %s under property %s.", resultKey, service.getResult().getResultIdProperty()));
-                    }
-                } else {
-                    try {
-                        target = ((ArrayNode) target).get(Integer.parseInt(resultKey));
-                    } catch (NumberFormatException nfwe) {
-                        throw new SailException(String.format("Could not access index %s of target %s which should be integer.", resultKey, target));
-                    }
-                }
-            } else if (target instanceof Element) {
-                if (service.getResult().getResultIdProperty() != null) {
-                    String[] resultPath = service.getResult().getResultIdProperty().split("\\.");
-                    NodeList nl = ((Element) target).getChildNodes();
-                    boolean found = false;
-                    for (int count = 0; count < nl.getLength(); count++) {
-                        if (resultKey.equals(convertObjectToString(traversePath(nl.item(count), resultPath)))) {
-                            target = nl.item(count);
-                            found = true;
-                            break;
-                        }
-                    }
-                    if (!found) {
-                        throw new SailException(String.format("Could not find result with key %s under property %s.", resultKey, service.getResult().getResultIdProperty()));
-                    }
-                } else {
-                    try {
-                        target = ((Element) target).getChildNodes().item(Integer.parseInt(resultKey));
-                    } catch (NumberFormatException nfwe) {
-                        throw new SailException(String.format("Could not access index %s of target %s which should be integer.", resultKey, target));
-                    }
-                }
+                return ((ArrayNode) target).get(position);
+            } else {
+                return ((Element) target).getChildNodes().item(position);
             }
+        } catch (NumberFormatException nfwe) {
+            throw new SailException(String.format("Could not access index %s of target %s which should be integer.", resultKey, target));
         }
-        return convertOutputToValue(target, connection.remotingSail.getValueFactory(), cf.getPath(), cf.getDataType());
     }
 
     /**
@@ -413,46 +650,42 @@ public class Invocation {
      * @return a literal
      */
     public static Value convertOutputToValue(Object target, ValueFactory vf, String cfPath, String dataType) throws SailException {
-        String[] path = new String[0];
-        if (cfPath != null) {
-            path = cfPath.split("\\.");
-        }
-        Object pathObj = traversePath(target, path);
-        switch (dataType) {
-            case "https://json-schema.org/draft/2020-12/schema#Object":
-                return vf.createLiteral(convertObjectToString(pathObj), vf.createIRI("https://json-schema.org/draft/2020-12/schema#Object"));
-            case "http://www.w3.org/2001/XMLSchema#dateTime":
-                return vf.createLiteral(convertObjectToString(pathObj), vf.createIRI("http://www.w3.org/2001/XMLSchema#dateTime"));
-            case "http://www.w3.org/2001/XMLSchema#int":
-                try {
-                    return vf.createLiteral(Integer.parseInt(convertObjectToString(pathObj)));
-                } catch (NumberFormatException nfwe) {
-                    throw new SailException(String.format("Could not convert %s to integer.", String.valueOf(pathObj)));
-                }
-            case "http://www.w3.org/2001/XMLSchema#long":
-                try {
-                    return vf.createLiteral(Long.parseLong(convertObjectToString(pathObj)));
-                } catch (NumberFormatException nfwe) {
-                    throw new SailException(String.format("Could not convert %s to integer.", String.valueOf(pathObj)));
-                }
-            case "http://www.w3.org/2001/XMLSchema#double":
-                try {
-                    return vf.createLiteral(Double.parseDouble(convertObjectToString(pathObj)));
-                } catch (NumberFormatException nfwe) {
-                    throw new SailException(String.format("Could not convert %s to integer.", String.valueOf(pathObj)));
-                }
-            case "http://www.w3.org/2001/XMLSchema#float":
-                try {
-                    return vf.createLiteral(Float.parseFloat(convertObjectToString(pathObj)));
-                } catch (NumberFormatException nfwe) {
-                    throw new SailException(String.format("Could not convert %s to float.", String.valueOf(pathObj)));
-                }
-            case "http://www.w3.org/2001/XMLSchema#string":
-                return vf.createLiteral(convertObjectToString(pathObj));
-            case "http://www.w3.org/2001/XMLSchema#Element":
-                return vf.createLiteral(convertObjectToString(pathObj), vf.createIRI("http://www.w3.org/2001/XMLSchema#Element")); // xml rendering?
-            default:
-                throw new SailException(String.format("Data Type %s is not supported.", dataType));
+        return convertOutputToValue(target, vf, PathAccessor.compile(cfPath), DataTypeConverter.forDataType(dataType), dataType);
+    }
+
+    /**
+     * converter from the type system to a literal using a pre-compiled path and converter
+     *
+     * @param target    source object
+     * @param vf        factory for creating literals
+     * @param path      compiled path under source object
+     * @param converter converter of the target literal type, null if not supported
+     * @param dataType  name of the target literal type
+     * @return a literal
+     */
+    public static Value convertOutputToValue(Object target, ValueFactory vf, PathAccessor path, DataTypeConverter converter, String dataType) throws SailException {
+        if (converter == null) {
+            throw new SailException(String.format("Data Type %s is not supported.", dataType));
+        }
+        return converter.convert(convertObjectToString(path.traverse(target)), vf);
+    }
+
+    /**
+     * waits for the given future and unwraps any failure
+     *
+     * @param future the future to wait for
+     * @param <TARGET> type of the result
+     * @return the result of the future
+     * @throws SailException if the future completed exceptionally
+     */
+    public static <TARGET> TARGET await(CompletableFuture<TARGET> future) throws SailException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SailException) {
+                throw (SailException) e.getCause();
+            }
+            throw new SailException(e.getCause());
         }
     }
 
@@ -464,26 +697,325 @@ public class Invocation {
      * @return flag indicating whether execution has been attempted (or was already done)
      */
     public boolean execute(RemotingSailConnection connection, BindingHost host) throws SailException {
+        return await(executeAsync(connection, host));
+    }
 
-        startTime = System.currentTimeMillis();
+    /**
+     * perform execution without blocking the calling thread
+     *
+     * @param connection sail connection in which to perform the invocation
+     * @param host       a binding host
+     * @return future flag indicating whether execution has been attempted (or was already done)
+     */
+    public CompletableFuture<Boolean> executeAsync(RemotingSailConnection connection, BindingHost host) {
+
+        if (startTime < 0) {
+            startTime = System.currentTimeMillis();
+        }
 
         if (logger.isTraceEnabled()) {
             logger.trace(String.format("Starting execution on connection %s with binding host %s at clock %d", connection, host, startTime));
         }
 
+        // only the bindings which are not answered from the cache are executed
+        final ResultCache cache = connection.remotingSail.getResultCache(service);
+        final CacheMisses misses = cache != null ? lookupCache(cache, host) : null;
+        final BindingHost target = misses != null ? misses : host;
+
+        // identical rest calls which are already in flight are joined instead of being sent again
+        final Map<BatchKey<Value>, Flight> inFlight =
+                service.isCoalesce() && service.getMatcher().group("restType") != null ? connection.remotingSail.getInFlight(service) : null;
+        final Flights flights = inFlight != null ? joinFlights(connection, inFlight, target) : null;
+        final BindingHost leaders = flights != null ? flights : target;
+
+        CompletableFuture<Void> execution;
         try {
-            if (service.getMatcher().group("classType") != null) {
-                executeClass(connection, host);
+            if (leaders.getBindings().isEmpty()) {
+                execution = CompletableFuture.completedFuture(null);
+            } else if (service.getMatcher().group("classType") != null) {
+                execution = CompletableFuture.runAsync(() -> {
+                    executeClass(connection, leaders);
+                }, connection.remotingSail.getExecutor());
             } else if (service.getMatcher().group("restType") != null) {
-                executeRest(connection, host);
-                return true;
+                execution = executeRestAsync(connection, leaders);
             } else {
-                throw new SailException("No class or rest binding found.");
+                execution = CompletableFuture.failedFuture(new SailException("No class or rest binding found."));
             }
-            return true;
-        } finally {
+        } catch (RuntimeException e) {
+            execution = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Void> landed = execution.handle((result, failure) -> {
+            if (failure == null && misses != null) {
+                storeCache(cache, misses);
+            }
+            if (flights != null) {
+                landFlights(inFlight, flights, failure);
+            }
+            if (failure != null) {
+                throw failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(failure);
+            }
+            return null;
+        });
+        if (flights != null) {
+            landed = landed.thenCompose(result -> CompletableFuture.allOf(flights.followers.toArray(new CompletableFuture<?>[0])));
+        }
+        return landed.handle((result, failure) -> {
             endTime = System.currentTimeMillis();
+            if (failure != null) {
+                throw failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(failure);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * an identical call in flight, led by one invocation and possibly followed by others
+     */
+    public static class Flight extends CompletableFuture<Map<String, Value>> {
+        /**
+         * whether other invocations wait for the outputs
+         */
+        protected volatile boolean followed;
+    }
+
+    /**
+     * the bindings of a host which lead a flight, i.e., which are actually sent to the backend
+     */
+    protected static class Flights implements BindingHost {
+        protected final BindingHost host;
+        protected final List<MutableBindingSet> bindings = new ArrayList<>();
+        protected final List<BatchKey<Value>> keys = new ArrayList<>();
+        protected final List<Flight> futures = new ArrayList<>();
+        protected final List<CompletableFuture<Void>> followers = new ArrayList<>();
+
+        protected Flights(BindingHost host) {
+            this.host = host;
+        }
+
+        @Override
+        public Set<String> getVariables() {
+            return host.getVariables();
+        }
+
+        @Override
+        public Collection<MutableBindingSet> getBindings() {
+            return bindings;
+        }
+
+        @Override
+        public CompletableFuture<Void> ready() {
+            return host.ready();
+        }
+
+        @Override
+        public void completed(Invocation invocation, Collection<MutableBindingSet> completed) {
+            host.completed(invocation, completed);
+        }
+    }
+
+    /**
+     * computes the in-flight key of a binding, i.e., the resolved argument tuple and the requested outputs
+     *
+     * @param binding the binding
+     * @return tuple of argument values followed by the output predicates
+     */
+    protected BatchKey<Value> flightKey(MutableBindingSet binding) {
+        Value[] components = Stream.concat(Arrays.stream(cacheKey(binding).getComponents()),
+                outputs.values().stream().distinct().sorted(Comparator.comparing(IRI::stringValue))).toArray(Value[]::new);
+        return new BatchKey<>(components);
+    }
+
+    /**
+     * joins identical calls which are already in flight and opens flights for the others.
+     * A follower whose flight does not land falls back to its own call.
+     *
+     * @param connection the sail connection
+     * @param inFlight   the calls of the service which are in flight
+     * @param host       the binding host
+     * @return the bindings which lead a new flight
+     */
+    protected Flights joinFlights(RemotingSailConnection connection, Map<BatchKey<Value>, Flight> inFlight, BindingHost host) {
+        Flights flights = new Flights(host);
+        for (MutableBindingSet binding : host.getBindings()) {
+            BatchKey<Value> key = flightKey(binding);
+            Flight flight = new Flight();
+            Flight pending = inFlight.putIfAbsent(key, flight);
+            if (pending == null) {
+                flights.bindings.add(binding);
+                flights.keys.add(key);
+                flights.futures.add(flight);
+                leading.put(binding, flight);
+            } else {
+                pending.followed = true;
+                flights.followers.add(pending.handle((values, failure) -> {
+                    if (failure == null) {
+                        for (Map.Entry<Var, IRI> output : outputs.entrySet()) {
+                            setValue(binding, output.getKey().getName(), values.get(output.getValue().stringValue()));
+                        }
+                        host.completed(this, List.of(binding));
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    if (cancelled.get()) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(String.format("Invocation %s falls back to its own call as the joined flight did not land: %s", this.key, failure.getMessage()));
+                    }
+                    Flights fallback = new Flights(host);
+                    fallback.bindings.add(binding);
+                    return executeRestAsync(connection, fallback);
+                }).thenCompose(fallback -> fallback));
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Invocation %s joined %d of %d bindings to calls in flight.", key,
+                    flights.followers.size(), host.getBindings().size()));
+        }
+        return flights;
+    }
+
+    /**
+     * hands the outputs of the led flights to their followers. Only flights whose call
+     * has finished with all outputs bound land, the others fail so that their followers
+     * fall back to their own call.
+     *
+     * @param inFlight the calls of the service which are in flight
+     * @param flights  the led flights
+     * @param failure  the failure of the execution, null if successful
+     */
+    protected void landFlights(Map<BatchKey<Value>, Flight> inFlight, Flights flights, Throwable failure) {
+        for (int count = 0; count < flights.bindings.size(); count++) {
+            Flight flight = flights.futures.get(count);
+            inFlight.remove(flights.keys.get(count), flight);
+            leading.remove(flights.bindings.get(count), flight);
+            Map<String, Value> values = failure == null ? collectOutputs(flights.bindings.get(count)) : null;
+            if (values != null) {
+                flight.complete(values);
+            } else {
+                flight.completeExceptionally(failure != null ? failure
+                        : new SailException(String.format("Call %s did not finish with all outputs bound.", flights.keys.get(count))));
+            }
+        }
+    }
+
+    /**
+     * the bindings of a host whose results were not found in the cache
+     */
+    protected static class CacheMisses implements BindingHost {
+        protected final BindingHost host;
+        protected final List<MutableBindingSet> bindings = new ArrayList<>();
+        protected final List<BatchKey<Value>> keys = new ArrayList<>();
+
+        protected CacheMisses(BindingHost host) {
+            this.host = host;
+        }
+
+        @Override
+        public Set<String> getVariables() {
+            return host.getVariables();
+        }
+
+        @Override
+        public Collection<MutableBindingSet> getBindings() {
+            return bindings;
+        }
+
+        @Override
+        public CompletableFuture<Void> ready() {
+            return host.ready();
+        }
+
+        @Override
+        public void completed(Invocation invocation, Collection<MutableBindingSet> completed) {
+            host.completed(invocation, completed);
+        }
+    }
+
+    /**
+     * computes the cache key of a binding, i.e., the resolved argument tuple in a canonical order
+     *
+     * @param binding the binding
+     * @return tuple of argument values, unbound arguments are null
+     */
+    protected BatchKey<Value> cacheKey(MutableBindingSet binding) {
+        Value[] components = service.getArguments().keySet().stream().sorted().map(argument -> {
+            Var variable = inputs.get(argument);
+            if (variable == null) {
+                return null;
+            } else if (variable.hasValue()) {
+                return variable.getValue();
+            } else {
+                return getValue(binding, variable.getName());
+            }
+        }).toArray(Value[]::new);
+        return new BatchKey<>(components);
+    }
+
+    /**
+     * answers the bindings from the cache as far as possible
+     *
+     * @param cache the result cache of the service
+     * @param host  the binding host
+     * @return the bindings which still need to be executed
+     */
+    protected CacheMisses lookupCache(ResultCache cache, BindingHost host) {
+        CacheMisses misses = new CacheMisses(host);
+        List<MutableBindingSet> hits = new ArrayList<>();
+        List<String> outputNames = outputs.values().stream().map(IRI::stringValue).collect(Collectors.toList());
+        for (MutableBindingSet binding : host.getBindings()) {
+            BatchKey<Value> key = cacheKey(binding);
+            Map<String, Value> cached = cache.get(key, outputNames);
+            if (cached != null) {
+                for (Map.Entry<Var, IRI> output : outputs.entrySet()) {
+                    setValue(binding, output.getKey().getName(), cached.get(output.getValue().stringValue()));
+                }
+                hits.add(binding);
+            } else {
+                misses.bindings.add(binding);
+                misses.keys.add(key);
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Invocation %s answered %d of %d bindings from the cache (%d hits, %d misses so far).", key,
+                    host.getBindings().size() - misses.bindings.size(), host.getBindings().size(), cache.getHits(), cache.getMisses()));
+        }
+        if (!hits.isEmpty()) {
+            host.completed(this, hits);
+        }
+        return misses;
+    }
+
+    /**
+     * caches the outputs of the executed bindings, bindings without complete outputs are not cached
+     *
+     * @param cache  the result cache of the service
+     * @param misses the executed bindings
+     */
+    protected void storeCache(ResultCache cache, CacheMisses misses) {
+        for (int count = 0; count < misses.bindings.size(); count++) {
+            Map<String, Value> values = collectOutputs(misses.bindings.get(count));
+            if (values != null) {
+                cache.put(misses.keys.get(count), values);
+            }
+        }
+    }
+
+    /**
+     * collects the outputs of an executed binding
+     *
+     * @param binding the binding
+     * @return the output values by output predicate, null if not all outputs are bound
+     */
+    protected Map<String, Value> collectOutputs(MutableBindingSet binding) {
+        Map<String, Value> values = new HashMap<>();
+        for (Map.Entry<Var, IRI> output : outputs.entrySet()) {
+            Value value = getValue(binding, output.getKey().getName());
+            if (value == null) {
+                return null;
+            }
+            values.put(output.getValue().stringValue(), value);
         }
+        return values;
     }
 
     /**
@@ -493,173 +1025,286 @@ public class Invocation {
      * @param host       binding host
      */
     public void executeRest(RemotingSailConnection connection, BindingHost host) throws SailException {
+        await(executeRestAsync(connection, host));
+    }
+
+    /**
+     * perform REST based executions on the executor of the sail.
+     * The calling thread only produces the batches, all remote I/O
+     * is done by (at most parallelism) lanes which drain the batches.
+     * Lanes do not wait for the callbacks of asynchronous calls but
+     * continue with the next batch.
+     *
+     * @param connection sail connection in which to perform the invocation
+     * @param host       binding host
+     * @return a future which completes when all batches have been processed
+     */
+    public CompletableFuture<Void> executeRestAsync(RemotingSailConnection connection, BindingHost host) {
         if (logger.isTraceEnabled()) {
             logger.trace(String.format("About to invoke REST call to connection %s at host %s", connection, host));
         }
-        try (CloseableHttpClient httpclient = HttpClients.createDefault()) {
-            String ourl = service.getMatcher().group("restType") + "://" + service.getMatcher().group("url");
-            if (logger.isTraceEnabled()) {
-                logger.trace(String.format("About to invoke REST call to %s ", ourl));
+        final CloseableHttpClient httpclient = connection.remotingSail.getHttpClient(service);
+        final String ourl = service.getMatcher().group("restType") + "://" + service.getMatcher().group("url");
+        if (logger.isTraceEnabled()) {
+            logger.trace(String.format("About to invoke REST call to %s ", ourl));
+        }
+        final Iterator<Collection<MutableBindingSet>> batches = produceBatches(host);
+        final Executor executor = connection.remotingSail.getExecutor();
+        CompletableFuture<?>[] lanes = new CompletableFuture<?>[service.getParallelism()];
+        for (int lane = 0; lane < lanes.length; lane++) {
+            List<CompletableFuture<Void>> callbacks = new ArrayList<>();
+            lanes[lane] = CompletableFuture.supplyAsync(() -> drainBatches(httpclient, ourl, host, batches, callbacks, executor), executor)
+                    .thenCompose(drained -> drained);
+        }
+        return CompletableFuture.allOf(lanes);
+    }
+
+    /**
+     * the work of a lane: sends batches until there are none left. While the host is not ready
+     * for further results, the lane is parked without holding its thread and resumes on the executor.
+     *
+     * @param httpclient the pooled client of the service
+     * @param ourl       the target url of the service
+     * @param host       the binding host
+     * @param batches    the batches shared by all lanes
+     * @param callbacks  the pending callbacks of the lane
+     * @param executor   the executor to resume on
+     * @return a future which completes when the lane is drained and its callbacks have arrived
+     */
+    protected CompletableFuture<Void> drainBatches(CloseableHttpClient httpclient, String ourl, BindingHost host,
+                                                   Iterator<Collection<MutableBindingSet>> batches,
+                                                   List<CompletableFuture<Void>> callbacks, Executor executor) {
+        while (true) {
+            CompletableFuture<Void> ready = host.ready();
+            if (!ready.isDone()) {
+                return ready.thenComposeAsync(room -> drainBatches(httpclient, ourl, host, batches, callbacks, executor), executor);
             }
+            Collection<MutableBindingSet> batch;
+            int batchCount;
+            synchronized (batches) {
+                if ((cancelled.get() && leading.isEmpty()) || !batches.hasNext()) {
+                    return CompletableFuture.allOf(callbacks.toArray(new CompletableFuture<?>[0]));
+                }
+                batch = batches.next();
+                if (cancelled.get() && !isFollowed(batch)) {
+                    // only batches which other invocations wait for are still sent
+                    continue;
+                }
+                batchCount = batchCounter.getAndIncrement();
+            }
+            CompletableFuture<Void> callback = executeBatch(httpclient, ourl, batch, batchCount)
+                    .thenRun(() -> host.completed(this, batch));
+            if (!callback.isDone()) {
+                callbacks.add(callback);
+            }
+        }
+    }
+
+    /**
+     * chooses the filter for xml results of the service
+     *
+     * @param filter the compiled filter of the result config, may be null
+     * @return the filter, or the complete document if the results are correlated by position
+     */
+    protected XmlPathFilter selectXmlFilter(XmlPathFilter filter) {
+        if (filter == null || (service.getResult().getResultIdProperty() == null
+                && (service.getResult().getCorrelationInput() != null || service.getBatch() > 1))) {
+            // positional correlation needs all child nodes of the result
+            return XmlPathFilter.CAPTURE_ALL;
+        }
+        return filter;
+    }
+
+    /**
+     * perform a single REST call for a batch of bindings and merge the results into the bindings
+     *
+     * @param httpclient the pooled client of the service
+     * @param ourl       the target url of the service
+     * @param batch      the bindings to send in one call
+     * @param batchCount the index of the batch in the invocation
+     * @return a future which completes when the results have been merged, already completed if the call was synchronous
+     */
+    protected CompletableFuture<Void> executeBatch(CloseableHttpClient httpclient, String ourl, Collection<MutableBindingSet> batch, int batchCount) throws SailException {
+        CallbackToken asyncToken = null;
+        CompletableFuture<Void> callback = null;
+        try {
             CloseableHttpResponse response = null;
-            CallbackToken asyncToken = null;
-            Iterator<Collection<MutableBindingSet>> batches;
-            batches = produceBatches(host);
-            for (int batchCount = 0; batches.hasNext(); batchCount++) {
-                Collection<MutableBindingSet> batch = batches.next();
-                final String[] url = { ourl };
-                switch (service.getMethod()) {
-                    case "GET":
-                        boolean isFirst = true;
-                        for (MutableBindingSet binding : batch) {
+            final String[] url = { ourl };
+            switch (service.getMethod()) {
+                case "GET":
+                    boolean isFirst = true;
+                    for (MutableBindingSet binding : batch) {
+                        if (logger.isTraceEnabled()) {
+                            logger.trace(String.format("About to process binding set %s", binding));
+                        }
+                        if (batch.size() > 1) {
+                            if (isFirst) {
+                                url[0] = url[0] + "?(";
+                            } else {
+                                url[0] = url[0] + "&(";
+                            }
+                        } else {
+                            if (isFirst) {
+                                url[0] = url[0] + "?";
+                            } else {
+                                url[0] = url[0] + "&";
+                            }
+                        }
+                        isFirst = false;
+                        final boolean[] isFirstArg = { true };
+                        service.getArguments().entrySet().stream().sorted(new ArgumentComparator()).forEach(argument -> {
                             if (logger.isTraceEnabled()) {
-                                logger.trace(String.format("About to process binding set %s", binding));
+                                logger.trace(String.format("About to process argument %s %s", argument.getKey(), argument.getValue()));
                             }
-                            if (batch.size() > 1) {
-                                if (isFirst) {
-                                    url[0] = url[0] + "?(";
-                                } else {
-                                    url[0] = url[0] + "&(";
-                                }
+                            Var mapping = inputs.get(argument.getKey());
+                            Value value;
+                            if (mapping.hasValue()) {
+                                value = mapping.getValue();
                             } else {
-                                if (isFirst) {
-                                    url[0] = url[0] + "?";
-                                } else {
-                                    url[0] = url[0] + "&";
-                                }
+                                value = getValue(binding, mapping.getName());
                             }
-                            isFirst = false;
-                            final boolean[] isFirstArg = { true };
-                            service.getArguments().entrySet().stream().sorted(new ArgumentComparator()).forEach(argument -> {
-                                if (logger.isTraceEnabled()) {
-                                    logger.trace(String.format("About to process argument %s %s", argument.getKey(), argument.getValue()));
-                                }
-                                Var mapping = inputs.get(argument.getKey());
-                                Value value;
-                                if (mapping.hasValue()) {
-                                    value = mapping.getValue();
-                                } else {
-                                    value = binding.getValue(mapping.getName());
-                                }
-                                Object render = convertToObject(value, String.class);
-                                if (isFirstArg[0]) {
-                                    url[0] = url[0] + argument.getValue().getArgumentName();
-                                } else {
-                                    url[0] = url[0] + "&" + argument.getValue().getArgumentName();
-                                }
-                                isFirstArg[0] = false;
-                                url[0] = url[0] + "=" + render;
-                            });
-                            if (batch.size() > 1) {
-                                url[0] = url[0] + ")";
+                            Object render = convertToObject(value, String.class);
+                            if (isFirstArg[0]) {
+                                url[0] = url[0] + argument.getValue().getArgumentName();
+                            } else {
+                                url[0] = url[0] + "&" + argument.getValue().getArgumentName();
                             }
+                            isFirstArg[0] = false;
+                            url[0] = url[0] + "=" + render;
+                        });
+                        if (batch.size() > 1) {
+                            url[0] = url[0] + ")";
                         }
-                        if (logger.isTraceEnabled()) {
-                            logger.trace(String.format("Instantiated REST call target with parameters to %s ", url[0]));
-                        }
-                        final HttpGet httpget = new HttpGet(url[0]);
-                        if (service.getAuthentication() != null) {
-                            httpget.addHeader(service.getAuthentication().getAuthKey(), service.getAuthentication().getAuthCode());
-                        }
+                    }
+                    if (logger.isTraceEnabled()) {
+                        logger.trace(String.format("Instantiated REST call target with parameters to %s ", url[0]));
+                    }
+                    final HttpGet httpget = new HttpGet(url[0]);
+                    if (service.getAuthentication() != null) {
+                        httpget.addHeader(service.getAuthentication().getAuthKey(), service.getAuthentication().getAuthCode());
+                    }
+
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(String.format("Performing %s ", httpget));
+                    }
+                    response = httpclient.execute(httpget);
+                    break;
 
-                        if (logger.isDebugEnabled()) {
-                            logger.debug(String.format("Performing %s ", httpget));
+                case "POST-JSON":
+                case "POST-JSON-MF":
+                    ObjectMapper objectMapper = new ObjectMapper();
+
+                    ObjectNode body = objectMapper.createObjectNode();
+                    ObjectNode message = body;
+                    ObjectNode input = body;
+                    ArrayNode array = objectMapper.createArrayNode();
+
+                    if (service.getInputProperty() != null) {
+                        String[] path = service.getInputProperty().split("\\.");
+                        for (int count = 0; count < path.length; count++) {
+                            message = input;
+                            input = objectMapper.createObjectNode();
+                            message.set(path[count], input);
                         }
-                        response = httpclient.execute(httpget);
-                        break;
-
-                    case "POST-JSON":
-                    case "POST-JSON-MF":
-                        ObjectMapper objectMapper = new ObjectMapper();
-
-                        ObjectNode body = objectMapper.createObjectNode();
-                        ObjectNode message = body;
-                        ObjectNode input = body;
-                        ArrayNode array = objectMapper.createArrayNode();
-
-                        if (service.getInputProperty() != null) {
-                            String[] path = service.getInputProperty().split("\\.");
-                            for (int count = 0; count < path.length; count++) {
-                                message = input;
-                                input = objectMapper.createObjectNode();
-                                message.set(path[count], input);
-                            }
-                            if (service.getBatch() > 1) {
-                                message.set(path[path.length - 1], array);
-                            }
-                        } else {
-                            if (service.getBatch() > 1) {
-                                throw new SailException(String.format("Cannot use batch mode without inputProperty."));
-                            }
+                        if (service.getBatch() > 1) {
+                            message.set(path[path.length - 1], array);
+                        }
+                    } else {
+                        if (service.getBatch() > 1) {
+                            throw new SailException(String.format("Cannot use batch mode without inputProperty."));
                         }
+                    }
 
-                        final ObjectNode finalinput = input;
-                        for (MutableBindingSet binding : batch) {
-                            AtomicBoolean isCorrect = new AtomicBoolean(true);
-                            service.getArguments().entrySet().stream().sorted(new ArgumentComparator()).forEach(argument -> {
-                                if (logger.isTraceEnabled()) {
-                                    logger.trace(String.format("About to process argument %s %s", argument.getKey(), argument.getValue()));
-                                }
-                                processArgument(objectMapper, finalinput, binding, isCorrect, argument.getKey(), argument.getValue());
-                            });
-                            if (isCorrect.get()) {
-                                array.add(input);
+                    final ObjectNode finalinput = input;
+                    for (MutableBindingSet binding : batch) {
+                        AtomicBoolean isCorrect = new AtomicBoolean(true);
+                        service.getArguments().entrySet().stream().sorted(new ArgumentComparator()).forEach(argument -> {
+                            if (logger.isTraceEnabled()) {
+                                logger.trace(String.format("About to process argument %s %s", argument.getKey(), argument.getValue()));
                             }
+                            processArgument(objectMapper, finalinput, binding, isCorrect, argument.getKey(), argument.getValue());
+                        });
+                        if (isCorrect.get()) {
+                            array.add(input);
                         }
+                    }
 
-                        String invocationId = key.stringValue() + String.format("&batch=%d", batchCount);
-                        if (service.getInvocationIdProperty() != null) {
-                            if (!message.isObject()) {
-                                throw new SailException(String.format("Cannot use invocationIdProperty in batch mode without inputProperty."));
-                            } else {
-                                setNode(objectMapper, ((ObjectNode) message), service.getInvocationIdProperty(), objectMapper.getNodeFactory().textNode(invocationId));
-                            }
+                    String invocationId = key.stringValue() + String.format("&batch=%d", batchCount);
+                    if (service.getInvocationIdProperty() != null) {
+                        if (!message.isObject()) {
+                            throw new SailException(String.format("Cannot use invocationIdProperty in batch mode without inputProperty."));
+                        } else {
+                            setNode(objectMapper, ((ObjectNode) message), service.getInvocationIdProperty(), objectMapper.getNodeFactory().textNode(invocationId));
                         }
+                    }
 
-                        if (service.getCallbackProperty() != null) {
-                            setNode(objectMapper, ((ObjectNode) message), service.getCallbackProperty(), objectMapper.getNodeFactory().textNode(connection.remotingSail.config.getCallbackAddress()));
-                            if (service.getResult().getCallbackProperty() != null) {
-                                asyncToken = CallbackController.register(service.getResult().getCallbackProperty(), invocationId);
+                    if (service.getCallbackProperty() != null) {
+                        setNode(objectMapper, ((ObjectNode) message), service.getCallbackProperty(), objectMapper.getNodeFactory().textNode(CallbackController.route(connection.remotingSail.config.getCallbackAddress())));
+                        if (service.getResult().getCallbackProperty() != null) {
+                            asyncToken = CallbackController.register(service.getResult().getCallbackProperty(), invocationId,
+                                    selectXmlFilter(service.getResult().getCallbackXmlFilter()),
+                                    connection.remotingSail.getPending(service), service.getMaxPending());
+                            if (asyncToken == null) {
+                                reportStatus(503);
+                                throw new SailException(String.format("Too many pending calls to %s. Rejected batch %d.", ourl, batchCount));
                             }
                         }
+                    }
 
-                        if (logger.isTraceEnabled()) {
-                            logger.trace(String.format("Derived body %s", body));
-                        }
+                    if (logger.isTraceEnabled()) {
+                        logger.trace(String.format("Derived body %s", body));
+                    }
 
-                        final HttpPost httppost = new HttpPost(url[0]);
-                        httppost.addHeader("accept", "application/json");
-                        if (service.getAuthentication() != null) {
-                            httppost.addHeader(service.getAuthentication().getAuthKey(), service.getAuthentication().getAuthCode());
-                        }
+                    final HttpPost httppost = new HttpPost(url[0]);
+                    httppost.addHeader("accept", "application/json");
+                    if (service.getAuthentication() != null) {
+                        httppost.addHeader(service.getAuthentication().getAuthKey(), service.getAuthentication().getAuthCode());
+                    }
 
-                        if (service.getMethod().equals("POST-JSON")) {
-                            httppost.addHeader("Content-Type", "application/json");
-                            httppost.setEntity(new StringEntity(objectMapper.writeValueAsString(body)));
-                        } else {
-                            MultipartEntityBuilder mpeb = MultipartEntityBuilder.create();
-                            mpeb.setBoundary("XXX");
-                            Iterator<String> fields = body.fieldNames();
-                            while (fields.hasNext()) {
-                                String field = fields.next();
-                                JsonNode node = body.get(field);
-                                String content = objectMapper.writeValueAsString(node);
-                                mpeb.addBinaryBody(field, content.getBytes(), ContentType.APPLICATION_JSON, field + ".json");
-                            }
-                            httppost.setEntity(mpeb.build());
-                        }
-                        if (logger.isDebugEnabled()) {
-                            logger.debug(String.format("Performing %s ", httppost));
+                    if (service.getMethod().equals("POST-JSON")) {
+                        httppost.addHeader("Content-Type", "application/json");
+                        httppost.setEntity(new StringEntity(objectMapper.writeValueAsString(body)));
+                    } else {
+                        MultipartEntityBuilder mpeb = MultipartEntityBuilder.create();
+                        mpeb.setBoundary("XXX");
+                        Iterator<String> fields = body.fieldNames();
+                        while (fields.hasNext()) {
+                            String field = fields.next();
+                            JsonNode node = body.get(field);
+                            String content = objectMapper.writeValueAsString(node);
+                            mpeb.addBinaryBody(field, content.getBytes(), ContentType.APPLICATION_JSON, field + ".json");
                         }
-                        response = httpclient.execute(httppost);
-                        break;
+                        httppost.setEntity(mpeb.build());
+                    }
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(String.format("Performing %s ", httppost));
+                    }
+                    response = httpclient.execute(httppost);
+                    break;
 
-                    default:
-                        throw new SailException(String.format("Cannot invoke method %s", service.getMethod()));
-                }
+                default:
+                    throw new SailException(String.format("Cannot invoke method %s", service.getMethod()));
+            }
 
+            try {
                 int lsuccess = response.getStatusLine().getStatusCode();
-                if (lsuccess >= 200 && lsuccess < 300) {
+                if (lsuccess >= 200 && lsuccess < 300 && asyncToken != null) {
+                    // the response is just an acknowledgement, the result comes with the callback
+                    final CallbackToken token = asyncToken;
+                    outstanding.put(token, batch);
+                    callback = CallbackController.await(asyncToken, service.getCallbackTimeout()).handle((result, failure) -> {
+                        outstanding.remove(token);
+                        if (failure != null && cancelled.get()) {
+                            logger.debug(String.format("Gave up waiting for a callback of %s as the query has enough results.", ourl));
+                        } else if (failure != null) {
+                            logger.warn(String.format("Did not get a callback for invocation of %s: %s. Ignoring.", ourl, failure));
+                            reportStatus(504);
+                        } else {
+                            processResult(result, batch, ourl);
+                        }
+                        return null;
+                    });
+                } else if (lsuccess >= 200 && lsuccess < 300) {
                     try {
                         Object result;
 
@@ -675,50 +1320,82 @@ public class Invocation {
                         }
 
                         if (isXml) {
-                            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-                            DocumentBuilder builder = factory.newDocumentBuilder();
-                            ByteArrayInputStream in = new ByteArrayInputStream(EntityUtils.toByteArray(entity));
-                            result = builder.parse(in).getDocumentElement();
+                            XmlPathFilter filter = selectXmlFilter(service.getResult().getXmlFilter());
+                            try (InputStream in = entity.getContent()) {
+                                result = filter.read(in);
+                            }
                         } else if (isJson) {
-                            ObjectMapper mapper = new ObjectMapper();
-                            ByteArrayInputStream in = new ByteArrayInputStream(EntityUtils.toByteArray(entity));
-                            result = mapper.readTree(in);
+                            JsonPathFilter filter = service.getResult().getJsonFilter();
+                            try (InputStream in = entity.getContent()) {
+                                if (filter != null) {
+                                    // only materialize the parts of the response which are referenced by the result config
+                                    result = filter.read(objectMapper, in);
+                                } else {
+                                    result = objectMapper.readTree(in);
+                                }
+                            }
                         } else {
                             result = EntityUtils.toString(entity);
                         }
 
-                        if (asyncToken != null) {
-                            result = CallbackController.synchronize(asyncToken);
-                        }
-
-                        if (result == null) {
-                            logger.warn(String.format("Did not get any response."));
-                            success = Math.max(success, 500);
-                        } else {
-                            for (MutableBindingSet binding : batch) {
-                                String key = null;
-                                if (service.getResult().getCorrelationInput() != null) {
-                                    key = resolve(binding, service.getResult().getCorrelationInput(), null, String.class);
-                                } else if (service.getBatch() > 1) {
-                                    key = "0";
-                                }
-                                for (Map.Entry<Var, IRI> output : outputs.entrySet()) {
-                                    binding.addBinding(output.getKey().getName(), convertOutputToValue(result, key, output.getValue()));
-                                }
-                            }
-                        }
+                        processResult(result, batch, ourl);
                     } catch (Exception e) {
                         logger.warn(String.format("Got an exception %s when processing invocation results of %s. Ignoring.", e, ourl));
-                        success = Math.max(success, 500);
+                        reportStatus(500);
                     }
                 } else {
                     logger.warn(String.format("Got an unsuccessful status %d from invoking %s. Ignoring.", lsuccess, ourl));
-                    success = Math.max(lsuccess, success);
+                    reportStatus(lsuccess);
                 }
+            } finally {
+                // hand back the connection to the pool
+                EntityUtils.consumeQuietly(response.getEntity());
+                response.close();
             }
         } catch (IOException ioe) {
             logger.warn(String.format("Got an exception %s when processing invocation. Ignoring.", ioe));
-            success = Math.max(500, success);
+            reportStatus(500);
+        } finally {
+            if (asyncToken != null && callback == null) {
+                // the call did not go through, so there will be no callback
+                CallbackController.cancel(asyncToken);
+            }
+        }
+        return callback != null ? callback : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * merges a (synchronous or asynchronous) result into the bindings of a batch
+     *
+     * @param result the parsed result
+     * @param batch  the bindings of the call
+     * @param ourl   the target url of the service
+     */
+    protected void processResult(Object result, Collection<MutableBindingSet> batch, String ourl) {
+        try {
+            if (result == null) {
+                logger.warn(String.format("Did not get any response."));
+                reportStatus(500);
+            } else {
+                // index the results once for all bindings and outputs of the batch
+                Object target = service.getResult().getOutputAccessor().traverse(result);
+                Map<String, Object> index = indexResults(target);
+                for (MutableBindingSet binding : batch) {
+                    String key = null;
+                    if (service.getResult().getCorrelationInput() != null) {
+                        key = resolve(binding, service.getResult().getCorrelationInput(), null, String.class);
+                    } else if (service.getBatch() > 1) {
+                        key = "0";
+                    }
+                    Object selected = selectResult(target, key, index);
+                    for (Map.Entry<Var, IRI> output : outputs.entrySet()) {
+                        setValue(binding, output.getKey().getName(), convertOutputToValue(selected, output.getValue()));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.warn(String.format("Got an exception %s when processing invocation results of %s. Ignoring.", e, ourl));
+            reportStatus(500);
         }
     }
 
@@ -735,6 +1412,11 @@ public class Invocation {
     protected void processArgument(ObjectMapper objectMapper, ObjectNode finalinput, MutableBindingSet binding, AtomicBoolean isCorrect, String argumentKey, ArgumentConfig argumentConfig) {
         JsonNode render = resolve(binding, argumentKey, (JsonNode) argumentConfig.getDefaultValue(), JsonNode.class);
         if (render != null) {
+            String[][] compiledPaths = argumentConfig.getArgumentPaths();
+            if (compiledPaths != null) {
+                setNode(objectMapper, finalinput, compiledPaths, render);
+                return;
+            }
             String paths = argumentConfig.getArgumentName();
             Matcher matcher = ARGUMENT_PATTERN.matcher(paths);
             StringBuilder resultPaths = new StringBuilder();
@@ -774,7 +1456,7 @@ public class Invocation {
             if (variable.hasValue()) {
                 value = variable.getValue();
             } else {
-                value = binding.getValue(variable.getName());
+                value = getValue(binding, variable.getName());
             }
         }
 
@@ -906,9 +1588,34 @@ public class Invocation {
      * @param render       the target object
      */
     public static void setNode(ObjectMapper objectMapper, ObjectNode finalInput, String pathSpec, JsonNode render) {
+        setNode(objectMapper, finalInput, splitPaths(pathSpec), render);
+    }
+
+    /**
+     * splits a path specification
+     *
+     * @param pathSpec comma-separated list of dot-separated paths
+     * @return array of paths, each being an array of fields
+     */
+    public static String[][] splitPaths(String pathSpec) {
         String[] pathNames = pathSpec.split(",");
-        for (String pathName : pathNames) {
-            String[] argPath = pathName.split("\\.");
+        String[][] paths = new String[pathNames.length][];
+        for (int count = 0; count < pathNames.length; count++) {
+            paths[count] = pathNames[count].split("\\.");
+        }
+        return paths;
+    }
+
+    /**
+     * sets a given node under pre-split paths
+     *
+     * @param objectMapper factory
+     * @param finalInput   target subject
+     * @param paths        the split paths
+     * @param render       the target object
+     */
+    public static void setNode(ObjectMapper objectMapper, ObjectNode finalInput, String[][] paths, JsonNode render) {
+        for (String[] argPath : paths) {
             JsonNode traverse = finalInput;
             int depth = 0;
             if (argPath.length == depth) {
@@ -1000,7 +1707,7 @@ public class Invocation {
     }
 
     /**
-     * perform class-based reflection execution
+     * perform class-based execution through the compiled method handle of the service
      *
      * @param connection sail connection in which to perform the invocation
      * @param host       binding host
@@ -1009,93 +1716,233 @@ public class Invocation {
         if (logger.isTraceEnabled()) {
             logger.trace(String.format("About to invoke Java call to connection %s at host %s", connection, host));
         }
-        Class targetClass = null;
-        try {
-            targetClass = getClass().getClassLoader().loadClass(service.getMatcher().group("class"));
-        } catch (ClassNotFoundException e) {
-            throw new SailException(e);
+        // the method has been resolved and compiled when validating the config
+        ClassTarget target = service.getClassTarget();
+        if (target.isBatch()) {
+            Object targetInstance = connection.remotingSail.acquireInstance(service, instances);
+            try {
+                runOn(targetInstance, () -> executeBatchFunction((BatchFunction) targetInstance, host));
+            } finally {
+                connection.remotingSail.releaseInstance(service, targetInstance);
+            }
+            return;
         }
+        String[] argumentKeys = target.getArgumentKeys();
+        Var[] arguments = new Var[argumentKeys.length];
+        for (int index = 0; index < argumentKeys.length; index++) {
+            arguments[index] = inputs.get(argumentKeys[index]);
+            if (arguments[index] == null) {
+                throw new SailException(String.format("Argument %s of %s is not bound.", argumentKeys[index], target));
+            }
+        }
+        Object targetInstance = connection.remotingSail.acquireInstance(service, instances);
         if (logger.isTraceEnabled()) {
-            logger.trace(String.format("Found class %s ", targetClass));
+            logger.trace(String.format("Invoking %s on instance %s", target, targetInstance));
         }
-        Object targetInstance = null;
         try {
-            targetInstance = targetClass.getConstructor().newInstance();
-        } catch (NoSuchMethodException e) {
-            throw new SailException(e);
-        } catch (IllegalAccessException e) {
-            throw new SailException(e);
-        } catch (InstantiationException e) {
-            throw new SailException(e);
-        } catch (InvocationTargetException e) {
-            throw new SailException(e.getCause());
+            List<MutableBindingSet> bindings = new ArrayList<>(host.getBindings());
+            if (service.isPure() && bindings.size() > 1) {
+                // side-effect-free functions are split across the compute pool
+                ForkJoinPool pool = connection.remotingSail.getComputePool();
+                int parts = service.getParallelism() > 1 ? Math.min(service.getParallelism(), pool.getParallelism()) : pool.getParallelism();
+                int partSize = Math.max(1, (bindings.size() + parts - 1) / parts);
+                pool.invoke(new ClassTask(this, host, target, targetInstance, arguments, bindings, 0, bindings.size(), partSize));
+            } else {
+                runOn(targetInstance, () -> invokeClass(host, target, targetInstance, arguments, bindings, 0, bindings.size()));
+            }
+        } finally {
+            connection.remotingSail.releaseInstance(service, targetInstance);
         }
-        for (MutableBindingSet binding : host.getBindings()) {
-            Method targetMethod = null;
-            Object[] targetParams = null;
+    }
+
+    /**
+     * runs an execution on an instance of the class service. Instances of the singleton
+     * and query scope may be shared by concurrent invocations. Unless the service is pure,
+     * i.e., declares its instances thread-safe, such an instance is used by one invocation at a time.
+     *
+     * @param targetInstance the instance to invoke
+     * @param execution      the execution using the instance
+     */
+    protected void runOn(Object targetInstance, Runnable execution) {
+        String scope = service.getInstanceScope();
+        if (service.isPure() || !(ServiceConfig.SINGLETON_SCOPE.equals(scope) || ServiceConfig.QUERY_SCOPE.equals(scope))) {
+            execution.run();
+            return;
+        }
+        synchronized (targetInstance) {
+            execution.run();
+        }
+    }
+
+    /**
+     * a range of bindings of a pure class function, which is split until it has at most the part size
+     */
+    protected static class ClassTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        protected final Invocation invocation;
+        protected final BindingHost host;
+        protected final ClassTarget target;
+        protected final Object targetInstance;
+        protected final Var[] arguments;
+        protected final List<MutableBindingSet> bindings;
+        protected final int from;
+        protected final int to;
+        protected final int partSize;
+
+        protected ClassTask(Invocation invocation, BindingHost host, ClassTarget target, Object targetInstance, Var[] arguments, List<MutableBindingSet> bindings, int from, int to, int partSize) {
+            this.invocation = invocation;
+            this.host = host;
+            this.target = target;
+            this.targetInstance = targetInstance;
+            this.arguments = arguments;
+            this.bindings = bindings;
+            this.from = from;
+            this.to = to;
+            this.partSize = partSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= partSize) {
+                invocation.invokeClass(host, target, targetInstance, arguments, bindings, from, to);
+            } else {
+                int middle = from + (to - from) / 2;
+                invokeAll(new ClassTask(invocation, host, target, targetInstance, arguments, bindings, from, middle, partSize),
+                        new ClassTask(invocation, host, target, targetInstance, arguments, bindings, middle, to, partSize));
+            }
+        }
+    }
+
+    /**
+     * invokes a class function on a range of bindings, each binding receives its own outputs
+     * and is handed to the host as soon as it is complete. A binding whose arguments cannot be
+     * converted or whose call fails is reported (as status 500) and handed out without outputs.
+     *
+     * @param host           binding host
+     * @param target         the compiled method
+     * @param targetInstance the instance to invoke
+     * @param arguments      the argument of each parameter
+     * @param bindings       the bindings
+     * @param from           first binding (inclusive)
+     * @param to             last binding (exclusive)
+     */
+    protected void invokeClass(BindingHost host, ClassTarget target, Object targetInstance, Var[] arguments, List<MutableBindingSet> bindings, int from, int to) {
+        List<MutableBindingSet> range = bindings.subList(from, to);
+        int[] argumentSlots = new int[arguments.length];
+        for (int index = 0; index < arguments.length; index++) {
+            argumentSlots[index] = arguments[index].hasValue() ? -1 : slotOf(range, arguments[index].getName());
+        }
+        List<Map.Entry<Var, IRI>> outputList = new ArrayList<>(outputs.entrySet());
+        int[] outputSlots = outputList.stream().mapToInt(output -> slotOf(range, output.getKey().getName())).toArray();
+        for (MutableBindingSet binding : range) {
+            if (cancelled.get()) {
+                return;
+            }
             try {
-                for (Method meth : targetClass.getMethods()) {
-                    if (meth.getName().equals(service.getMatcher().group("method"))) {
-                        if (logger.isTraceEnabled()) {
-                            logger.trace(String.format("Found method %s ", meth));
-                        }
-                        targetParams = new Object[meth.getParameterTypes().length];
-                        int argIndex = 0;
-                        for (Parameter param : meth.getParameters()) {
-                            if (logger.isTraceEnabled()) {
-                                logger.trace(String.format("Checking parameter %s", param));
-                            }
-                            ArgumentConfig aconfig = null;
-                            for (Map.Entry<String, ArgumentConfig> argument : service.getArguments().entrySet()) {
-                                if (logger.isTraceEnabled()) {
-                                    logger.trace(String.format("Agains argument %s %s", argument.getKey(),
-                                            argument.getValue().getArgumentName()));
-                                }
-                                if (argument.getValue().getArgumentName().contains(param.getName())) {
-                                    aconfig = argument.getValue();
-                                    Var arg = inputs.get(argument.getKey());
-                                    Value value;
-                                    if (!arg.hasValue()) {
-                                        value = binding.getValue(arg.getName());
-                                    } else {
-                                        value = arg.getValue();
-                                    }
-                                    targetParams[argIndex++] = convertToObject(value, param.getType());
-                                    break;
-                                }
-                            }
-                            if (logger.isTraceEnabled()) {
-                                logger.trace(String.format("Parameter %s resulted to argument %s ", param, aconfig));
-                            }
-                            if (aconfig == null) {
-                                targetParams = null;
-                                break;
-                            }
-                        }
-                        if (targetParams != null) {
-                            targetMethod = meth;
-                            break;
-                        }
-                    }
+                Object[] targetParams = new Object[arguments.length];
+                for (int index = 0; index < arguments.length; index++) {
+                    Var arg = arguments[index];
+                    Value value = arg.hasValue() ? arg.getValue() : getValue(binding, argumentSlots[index], arg.getName());
+                    targetParams[index] = target.convert(index, value);
                 }
-                if (targetMethod == null) {
-                    throw new SailException(
-                            String.format("Target method %s with suitable arguments could not be found in class %s.",
-                                    service.getMatcher().group("method"), targetClass));
+                Object result = target.invoke(targetInstance, targetParams);
+                for (int index = 0; index < outputSlots.length; index++) {
+                    Map.Entry<Var, IRI> output = outputList.get(index);
+                    setValue(binding, outputSlots[index], output.getKey().getName(), convertOutputToValue(result, null, output.getValue()));
                 }
-            } finally {
-                // in case we need to cleanup something
+            } catch (Exception e) {
+                logger.warn(String.format("Invocation to %s (method %s) resulted in exception %s", targetInstance, target, e));
+                reportStatus(500);
             }
-            try {
-                Object result = targetMethod.invoke(targetInstance, targetParams);
-                for (Map.Entry<Var, IRI> output : outputs.entrySet()) {
-                    binding.addBinding(output.getKey().getName(), convertOutputToValue(result, null, output.getValue()));
+            host.completed(this, List.of(binding));
+        }
+    }
+
+    /**
+     * perform a batch function call, once per batch
+     *
+     * @param function the instance of the batch function
+     * @param host     binding host
+     * @throws SailException in case an argument is not bound or cannot be converted
+     */
+    protected void executeBatchFunction(BatchFunction function, BindingHost host) throws SailException {
+        List<Collection<MutableBindingSet>> batches = new ArrayList<>();
+        produceBatches(host).forEachRemaining(batches::add);
+        if (service.isPure() && batches.size() > 1) {
+            // side-effect-free batches are computed in parallel
+            connection.remotingSail.getComputePool().invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(batches.stream()
+                    .map(batch -> ForkJoinTask.adapt(() -> applyBatch(host, function, new ArrayList<>(batch))))
+                    .collect(Collectors.toList()))));
+        } else {
+            for (Collection<MutableBindingSet> batch : batches) {
+                applyBatch(host, function, new ArrayList<>(batch));
+            }
+        }
+    }
+
+    /**
+     * calls a batch function on a single batch and hands it to the host
+     *
+     * @param host     binding host
+     * @param function the instance of the batch function
+     * @param batch    the bindings of the batch
+     * @throws SailException in case an argument is not bound or cannot be converted
+     */
+    protected void applyBatch(BindingHost host, BatchFunction function, List<MutableBindingSet> batch) throws SailException {
+        if (batch.isEmpty() || cancelled.get()) {
+            return;
+        }
+        Map<String, Object> columns = new HashMap<>();
+        for (Map.Entry<String, Var> input : inputs.entrySet()) {
+            ArgumentConfig argument = service.getArguments().get(input.getKey());
+            if (argument == null) {
+                continue;
+            }
+            Class<?> type = function.getArgumentType(argument.getArgumentName());
+            Object column = Array.newInstance(type, batch.size());
+            int slot = input.getValue().hasValue() ? -1 : slotOf(batch, input.getValue().getName());
+            for (int row = 0; row < batch.size(); row++) {
+                Value value = input.getValue().hasValue() ? input.getValue().getValue() : getValue(batch.get(row), slot, input.getValue().getName());
+                if (value == null) {
+                    if (type.isPrimitive()) {
+                        throw new SailException(String.format("Argument %s of %s is not bound.", argument.getArgumentName(), function));
+                    }
+                    continue;
+                }
+                Array.set(column, row, convertToObject(value, type));
+            }
+            columns.put(argument.getArgumentName(), column);
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace(String.format("Invoking batch function %s on %d bindings", function, batch.size()));
+        }
+        try {
+            Map<String, Object> results = function.apply(columns, batch.size());
+            for (Map.Entry<Var, IRI> output : outputs.entrySet()) {
+                ReturnValueConfig cf = service.getResult().getOutputs().get(output.getValue().stringValue());
+                if (cf == null) {
+                    throw new SailException(String.format("No output specification for %s", output.getValue()));
+                }
+                Object column = results.get(cf.getPath());
+                if (column == null && results.size() == 1) {
+                    column = results.values().iterator().next();
+                }
+                if (column == null) {
+                    throw new SailException(String.format("Batch function %s did not return a column for %s", function, cf.getPath()));
+                }
+                int slot = slotOf(batch, output.getKey().getName());
+                for (int row = 0; row < batch.size(); row++) {
+                    Object element = column instanceof List ? ((List<?>) column).get(row) : Array.get(column, row);
+                    setValue(batch.get(row), slot, output.getKey().getName(), convertOutputToValue(element,
+                            connection.remotingSail.getValueFactory(), PathAccessor.EMPTY, cf.getConverter(), cf.getDataType()));
                 }
-            } catch (Exception e) {
-                logger.warn(String.format("Invocation to %s (method %s) resulted in exception %s", targetInstance, targetMethod, e));
-                success = Math.max(500, success);
             }
+        } catch (Exception e) {
+            logger.warn(String.format("Batch invocation to %s resulted in exception %s", function, e));
+            reportStatus(500);
         }
+        host.completed(this, batch);
     }
 
 }
\ No newline at end of file
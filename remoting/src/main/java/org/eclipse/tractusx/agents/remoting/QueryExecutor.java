@@ -16,10 +16,15 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.eclipse.tractusx.agents.remoting;
 
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.MutableBindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.algebra.Add;
 import org.eclipse.rdf4j.query.algebra.AggregateFunctionCall;
 import org.eclipse.rdf4j.query.algebra.And;
@@ -99,22 +104,44 @@ import org.eclipse.rdf4j.query.algebra.Sum;
 import org.eclipse.rdf4j.query.algebra.TripleRef;
 import org.eclipse.rdf4j.query.algebra.Union;
 import org.eclipse.rdf4j.query.algebra.ValueConstant;
+import org.eclipse.rdf4j.query.algebra.ValueExpr;
 import org.eclipse.rdf4j.query.algebra.ValueExprTripleRef;
 import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.algebra.ZeroLengthPath;
-import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryValueEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.ValueExprEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.DefaultEvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.QueryEvaluationUtil;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractSimpleQueryModelVisitor;
+import org.eclipse.rdf4j.query.algebra.helpers.collectors.VarNameCollector;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.tractusx.agents.remoting.config.ServiceConfig;
+import org.eclipse.tractusx.agents.remoting.util.BatchKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * The query processing is done while visiting
@@ -128,12 +155,85 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
     protected Map<Value, Invocation> invocations = new HashMap<>();
 
     /**
-     * bindings and results
+     * bindings and results, the bindings being a view on the rows of the columnar table
      */
     protected final Set<String> variables = new HashSet<>();
-    protected final List<MutableBindingSet> bindings = new ArrayList<>();
+    protected final BindingTable table = new BindingTable();
+    protected final List<MutableBindingSet> bindings = table.getRows();
     protected final Map<String, String> outputVariables = new HashMap<>();
 
+    /**
+     * streaming state: the stream to hand complete rows to,
+     * the rows which have been handed out so far (all of them, only the recent ones
+     * for a REDUCED query, or null if the rows of a limited order are compared in its heap),
+     * the names of the row variables and the number of invocations which still need to complete each binding
+     */
+    protected final BindingStream stream;
+    protected Set<BatchKey<Value>> distincts = new HashSet<>();
+    protected List<String> rowNames;
+    protected Map<MutableBindingSet, AtomicInteger> remaining;
+    protected CompletableFuture<Void> execution;
+
+    /**
+     * the pipelines which consume the completed bindings of an invocation
+     */
+    protected final Map<Invocation, List<Pipeline>> consumers = new HashMap<>();
+
+    /**
+     * the instances of class services in query scope
+     */
+    protected final Map<ServiceConfig, Object> instances = new ConcurrentHashMap<>();
+
+    /**
+     * filter state: the conditions on outputs which are applied to complete rows,
+     * whether input conditions have been applied to the bindings, the invocation
+     * subjects by variable name and the strategy which compiles the conditions
+     */
+    protected final List<QueryValueEvaluationStep> outputConditions = new ArrayList<>();
+    protected boolean filtered = false;
+    protected final Map<String, Value> subjects = new HashMap<>();
+    protected EvaluationStrategy strategy;
+    protected final ValueComparator valueComparator = new ValueComparator();
+
+    /**
+     * slice state: the rows to skip, the maximal number of rows (-1 if not limited),
+     * the number of rows which passed the projection so far and whether the
+     * invocations have been stopped because enough rows have been handed out
+     */
+    protected long offset = 0;
+    protected long limit = -1;
+    protected final AtomicLong position = new AtomicLong(0);
+    protected final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+    /**
+     * order state: the compiled sort keys (null if not ordered), the direction
+     * of each key and the rows which are collected until all invocations are done.
+     * With a limit, only the best offset+limit rows are kept, and duplicates are only
+     * compared against the kept rows.
+     */
+    protected List<QueryValueEvaluationStep> orderKeys;
+    protected boolean[] ascending;
+    protected PriorityQueue<SortedRow> ordered;
+    protected Set<BatchKey<Value>> heapRows;
+
+    /**
+     * the number of recent rows which a REDUCED query compares against
+     */
+    public static final int REDUCED_WINDOW = 1024;
+
+    /**
+     * a projected row together with its sort keys
+     */
+    protected static class SortedRow {
+        protected final Value[] keys;
+        protected final BatchKey<Value> row;
+
+        protected SortedRow(Value[] keys, BatchKey<Value> row) {
+            this.keys = keys;
+            this.row = row;
+        }
+    }
+
     /**
      * the logger
      */
@@ -144,12 +244,14 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
     protected RemotingSailConnection connection;
 
     /**
-     * create a new visitor
+     * create a new visitor which streams its results
      *
      * @param connection the sail connection
+     * @param stream     the stream to hand complete rows to
      */
-    public QueryExecutor(RemotingSailConnection connection) {
+    public QueryExecutor(RemotingSailConnection connection, BindingStream stream) {
         this.connection = connection;
+        this.stream = stream;
     }
 
 
@@ -158,6 +260,24 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
         return super.toString() + "/visitor";
     }
 
+    /**
+     * seeds the bindings with externally supplied bindings, e.g., the outer
+     * bindings of a bound join when the repository is the target of a SERVICE clause.
+     * Must be called before visiting the query. Subsequent VALUES blocks are joined to the seed.
+     *
+     * @param seed the external bindings, may be null or empty
+     */
+    public void seed(BindingSet seed) {
+        if (seed == null || seed.isEmpty()) {
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Seeding the bindings with external bindings %s", seed));
+        }
+        variables.addAll(seed.getBindingNames());
+        table.addRow(seed);
+    }
+
     @Override
     public void meet(QueryRoot node) throws SailException {
         logger.debug(String.format("Visiting a query root %s", node.getClass()));
@@ -184,31 +304,18 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
         throw new SailException(String.format("No support for %s", node));
     }
 
-    /**
-     * convert a binding set to a mutable version
-     *
-     * @param bs the binding set
-     * @return mutable binding set
-     */
-    protected MutableBindingSet makeMutable(BindingSet bs) {
-        if (bs instanceof MutableBindingSet) {
-            return (MutableBindingSet) bs;
-        } else {
-            MutableBindingSet mbs = new MapBindingSet();
-            for (String binding : bs.getBindingNames()) {
-                mbs.addBinding(bs.getBinding(binding));
-            }
-            return mbs;
-        }
-    }
-
     @Override
     public void meet(BindingSetAssignment node) throws SailException {
         variables.addAll(node.getBindingNames());
-        if (bindings.isEmpty()) {
-            node.getBindingSets().forEach(binding -> bindings.add(makeMutable(binding)));
+        node.getBindingNames().forEach(table::slot);
+        if (bindings.isEmpty() && !filtered) {
+            node.getBindingSets().forEach(table::addRow);
         } else {
-            bindings.forEach(binding -> node.getBindingSets().forEach(joinBindings -> joinBindings.forEach(binding::addBinding)));
+            int before = bindings.size();
+            table.join(node.getBindingSets(), node.getBindingNames());
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Joined %d bindings with a block of variables %s into %d bindings", before, node.getBindingNames(), bindings.size()));
+            }
         }
     }
 
@@ -282,9 +389,17 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
         throw new SailException(String.format("No support for %s", node));
     }
 
+    /**
+     * removes duplicate rows while streaming, remembering all projected rows
+     * (which is also what happens without DISTINCT)
+     *
+     * @param node the distinct
+     * @throws SailException if the argument is not supported
+     */
     @Override
     public void meet(Distinct node) throws SailException {
-        throw new SailException(String.format("No support for %s", node));
+        logger.debug(String.format("Visiting a distinct %s", node.getClass()));
+        node.getArg().visit(this);
     }
 
     @Override
@@ -307,9 +422,105 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
         throw new SailException(String.format("No support for %s", node));
     }
 
+    /**
+     * splits the filter condition into its conjuncts. Conjuncts which only reference
+     * inputs (i.e., no outputs of the invocations seen so far) are applied to the bindings
+     * right away, so that they are not sent to the backends. Conjuncts which reference
+     * outputs are applied to the complete rows before they are handed out.
+     *
+     * @param node the filter
+     * @throws SailException if the condition is not supported
+     */
     @Override
     public void meet(Filter node) throws SailException {
-        throw new SailException(String.format("No support for %s", node));
+        logger.debug(String.format("Visiting a filter %s", node.getClass()));
+        node.getArg().visit(this);
+        Set<String> outputNames = invocations.values().stream()
+                .flatMap(invocation -> invocation.outputs.keySet().stream())
+                .filter(output -> !output.hasValue())
+                .map(Var::getName)
+                .collect(Collectors.toSet());
+        List<ValueExpr> conjuncts = new ArrayList<>();
+        splitConjunction(node.getCondition(), conjuncts);
+        List<QueryValueEvaluationStep> inputConditions = new ArrayList<>();
+        for (ValueExpr conjunct : conjuncts) {
+            conjunct.visit(new AbstractSimpleQueryModelVisitor<SailException>() {
+                @Override
+                public void meet(Exists node) throws SailException {
+                    throw new SailException(String.format("No support for %s", node));
+                }
+            });
+            QueryValueEvaluationStep condition = getStrategy().precompile(conjunct, new QueryEvaluationContext.Minimal(null));
+            if (Collections.disjoint(VarNameCollector.process(conjunct), outputNames)) {
+                inputConditions.add(condition);
+            } else {
+                outputConditions.add(condition);
+            }
+        }
+        if (!inputConditions.isEmpty()) {
+            int before = bindings.size();
+            table.retain(row -> inputConditions.stream().allMatch(condition -> isTrue(condition, row)));
+            filtered = true;
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Filtered %d bindings down to %d before invocation", before, bindings.size()));
+            }
+        }
+    }
+
+    /**
+     * collects the conjuncts of a condition
+     *
+     * @param condition the condition
+     * @param conjuncts the list to add the conjuncts to
+     */
+    protected static void splitConjunction(ValueExpr condition, List<ValueExpr> conjuncts) {
+        if (condition instanceof And) {
+            splitConjunction(((And) condition).getLeftArg(), conjuncts);
+            splitConjunction(((And) condition).getRightArg(), conjuncts);
+        } else {
+            conjuncts.add(condition);
+        }
+    }
+
+    /**
+     * evaluates a condition on a binding, errors (such as unbound variables) count as false
+     *
+     * @param condition the compiled condition
+     * @param binding   the binding
+     * @return effective boolean value of the condition
+     */
+    protected static boolean isTrue(QueryValueEvaluationStep condition, BindingSet binding) {
+        try {
+            return QueryEvaluationUtil.getEffectiveBooleanValue(condition.evaluate(binding));
+        } catch (ValueExprEvaluationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * access the strategy which compiles filter conditions. There are no triples
+     * to match, so only the value expressions of the strategy are used.
+     *
+     * @return evaluation strategy
+     */
+    protected EvaluationStrategy getStrategy() {
+        if (strategy == null) {
+            final ValueFactory vf = connection.remotingSail.getValueFactory();
+            strategy = new DefaultEvaluationStrategy(new TripleSource() {
+                // the rdf4j 4.x iteration api is deprecated as a whole, there is no replacement to return yet
+                @SuppressWarnings("deprecation")
+                @Override
+                public CloseableIteration<? extends Statement, QueryEvaluationException> getStatements(Resource subj, IRI pred, Value obj, Resource... contexts) {
+                    return TripleSource.EMPTY_ITERATION;
+                }
+
+                @Override
+                public ValueFactory getValueFactory() {
+                    return vf;
+                }
+            }, null);
+        }
+        return strategy;
     }
 
     @Override
@@ -474,9 +685,58 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
         throw new SailException(String.format("No support for %s", node));
     }
 
+    /**
+     * compiles the sort keys. Rows are collected (with a limit, in a heap
+     * of the best offset+limit rows) and handed out in order when all invocations are done.
+     *
+     * @param node the order
+     * @throws SailException if the argument is not supported
+     */
     @Override
     public void meet(Order node) throws SailException {
-        throw new SailException(String.format("No support for %s", node));
+        logger.debug(String.format("Visiting an order %s", node.getClass()));
+        node.getArg().visit(this);
+        orderKeys = new ArrayList<>();
+        ascending = new boolean[node.getElements().size()];
+        for (OrderElem element : node.getElements()) {
+            ascending[orderKeys.size()] = element.isAscending();
+            orderKeys.add(getStrategy().precompile(element.getExpr(), new QueryEvaluationContext.Minimal(null)));
+        }
+    }
+
+    /**
+     * compares two rows by their sort keys
+     *
+     * @param first  the first row
+     * @param second the second row
+     * @return negative if the first row comes first
+     */
+    protected int compareRows(SortedRow first, SortedRow second) {
+        for (int index = 0; index < ascending.length; index++) {
+            int result = valueComparator.compare(first.keys[index], second.keys[index]);
+            if (result != 0) {
+                return ascending[index] ? result : -result;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * hands out the collected rows in order
+     */
+    protected void flushOrdered() {
+        List<SortedRow> rows;
+        synchronized (ordered) {
+            rows = new ArrayList<>(ordered);
+            ordered.clear();
+            if (heapRows != null) {
+                heapRows.clear();
+            }
+        }
+        rows.sort(this::compareRows);
+        for (SortedRow row : rows) {
+            handOut(row.row);
+        }
     }
 
     @Override
@@ -488,10 +748,316 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
     public void meet(Projection node) throws SailException {
         logger.debug(String.format("Visiting a projection %s", node.getClass()));
         node.getArg().visit(this);
+        node.getProjectionElemList().visit(this);
+        rowNames = new ArrayList<>(outputVariables.keySet());
+        if (orderKeys != null) {
+            // reversed, so that the head of the heap is the row to drop first
+            ordered = new PriorityQueue<>((first, second) -> compareRows(second, first));
+            if (limit >= 0) {
+                // a duplicate of a dropped row would be dropped again, so the kept rows suffice
+                heapRows = new HashSet<>();
+                distincts = null;
+            }
+        }
+        // a binding is complete as soon as each invocation has set its outputs
+        remaining = new IdentityHashMap<>();
+        for (MutableBindingSet binding : bindings) {
+            remaining.put(binding, new AtomicInteger(invocations.size()));
+        }
+        if (limit == 0) {
+            cancelled.set(true);
+            execution = CompletableFuture.completedFuture(null);
+            return;
+        }
+        if (invocations.isEmpty()) {
+            bindings.forEach(this::emit);
+        }
+        // dependent invocations are fed with the bindings which their producers have completed
+        for (Invocation invocation : invocations.values()) {
+            List<Invocation> producers = invocations.values().stream().filter(invocation::dependsOn).collect(Collectors.toList());
+            if (!producers.isEmpty() && invocation.supportsPipelining()) {
+                Pipeline pipeline = new Pipeline(invocation, producers.size());
+                for (Invocation producer : producers) {
+                    consumers.computeIfAbsent(producer, key -> new ArrayList<>()).add(pipeline);
+                }
+            }
+        }
+        // independent invocations run in parallel, dependent ones start when their producers are done
+        Map<Invocation, CompletableFuture<Boolean>> scheduled = new HashMap<>();
         for (Invocation invocation : invocations.values()) {
-            invocation.execute(connection, this);
+            schedule(invocation, scheduled, new HashSet<>());
+        }
+        execution = CompletableFuture.allOf(scheduled.values().toArray(new CompletableFuture<?>[0]))
+                .whenComplete((result, failure) -> instances.values().forEach(connection.remotingSail::closeInstance));
+        if (ordered != null) {
+            execution = execution.thenRun(this::flushOrdered);
+        }
+    }
+
+    /**
+     * access
+     *
+     * @return a future which completes when the stream has room for further rows
+     */
+    @Override
+    public CompletableFuture<Void> ready() {
+        return stream.whenWritable();
+    }
+
+    @Override
+    public void completed(Invocation invocation, Collection<MutableBindingSet> completed) {
+        if (remaining == null) {
+            return;
+        }
+        for (Pipeline pipeline : consumers.getOrDefault(invocation, List.of())) {
+            pipeline.produced(completed);
+        }
+        for (MutableBindingSet binding : completed) {
+            AtomicInteger count = remaining.get(binding);
+            if (count != null && count.decrementAndGet() == 0) {
+                emit(binding);
+            }
+        }
+    }
+
+    /**
+     * projects a complete binding and hands it to the stream unless an identical row has been handed out before
+     *
+     * @param binding the complete binding
+     */
+    protected void emit(MutableBindingSet binding) {
+        for (QueryValueEvaluationStep condition : outputConditions) {
+            if (!isTrue(condition, binding)) {
+                return;
+            }
+        }
+        if (rowNames == null) {
+            rowNames = new ArrayList<>(outputVariables.keySet());
+        }
+        BatchKey<Value> row = new BatchKey<>(rowNames.stream().map(name -> Invocation.getValue(binding, name)).toArray(Value[]::new));
+        if (distincts != null) {
+            boolean isNew;
+            synchronized (distincts) {
+                isNew = distincts.add(row);
+            }
+            if (!isNew) {
+                return;
+            }
+        }
+        if (orderKeys != null) {
+            Value[] keys = orderKeys.stream().map(key -> {
+                try {
+                    return key.evaluate(binding);
+                } catch (ValueExprEvaluationException e) {
+                    return null;
+                }
+            }).toArray(Value[]::new);
+            synchronized (ordered) {
+                if (heapRows != null && !heapRows.add(row)) {
+                    return;
+                }
+                ordered.add(new SortedRow(keys, row));
+                if (limit >= 0 && ordered.size() > offset + limit) {
+                    // the head of the heap is the worst row
+                    SortedRow dropped = ordered.poll();
+                    if (heapRows != null) {
+                        heapRows.remove(dropped.row);
+                    }
+                }
+            }
+            return;
+        }
+        handOut(row);
+    }
+
+    /**
+     * hands a projected row to the stream, respecting the offset and limit
+     *
+     * @param row the projected row
+     */
+    protected void handOut(BatchKey<Value> row) {
+        if (offset > 0 || limit >= 0) {
+            long index = position.getAndIncrement();
+            if (index < offset || (limit >= 0 && index >= offset + limit)) {
+                return;
+            }
+            stream.offer(new ListBindingSet(rowNames, row.getComponents()));
+            if (limit >= 0 && index == offset + limit - 1) {
+                stop();
+            }
+        } else {
+            stream.offer(new ListBindingSet(rowNames, row.getComponents()));
+        }
+    }
+
+    /**
+     * access the execution of the invocations. If no projection has
+     * scheduled the invocations, the bindings are final as they are.
+     *
+     * @return future which completes when all invocations are done
+     */
+    public CompletableFuture<Void> getExecution() {
+        if (execution == null) {
+            bindings.forEach(this::emit);
+            execution = CompletableFuture.completedFuture(null);
+        }
+        return execution;
+    }
+
+    /**
+     * schedules an invocation after all invocations whose outputs it consumes
+     *
+     * @param invocation the invocation to schedule
+     * @param scheduled  the already scheduled invocations
+     * @param path       the invocations currently being scheduled (to detect cycles)
+     * @return future of the invocation
+     * @throws SailException in case the invocations depend on each other cyclically
+     */
+    protected CompletableFuture<Boolean> schedule(Invocation invocation, Map<Invocation, CompletableFuture<Boolean>> scheduled, Set<Invocation> path) throws SailException {
+        CompletableFuture<Boolean> execution = scheduled.get(invocation);
+        if (execution != null) {
+            return execution;
+        }
+        if (!path.add(invocation)) {
+            throw new SailException(String.format("Invocation %s cyclically depends on its own outputs.", invocation.key));
+        }
+        List<CompletableFuture<Boolean>> producers = new ArrayList<>();
+        for (Invocation producer : invocations.values()) {
+            if (invocation.dependsOn(producer)) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug(String.format("Invocation %s waits for the outputs of invocation %s", invocation.key, producer.key));
+                }
+                producers.add(schedule(producer, scheduled, path));
+            }
+        }
+        path.remove(invocation);
+        Pipeline pipeline = findPipeline(invocation);
+        if (pipeline != null) {
+            execution = CompletableFuture.allOf(producers.toArray(new CompletableFuture<?>[0]))
+                    .thenCompose(ready -> pipeline.drain());
+        } else {
+            execution = CompletableFuture.allOf(producers.toArray(new CompletableFuture<?>[0]))
+                    .thenCompose(ready -> invocation.executeAsync(connection, this));
+        }
+        scheduled.put(invocation, execution);
+        return execution;
+    }
+
+    /**
+     * finds the pipeline of a dependent invocation
+     *
+     * @param invocation the invocation
+     * @return pipeline, null if the invocation is executed at once
+     */
+    protected Pipeline findPipeline(Invocation invocation) {
+        for (List<Pipeline> pipelines : consumers.values()) {
+            for (Pipeline pipeline : pipelines) {
+                if (pipeline.invocation == invocation) {
+                    return pipeline;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * feeds the bindings of a dependent invocation in parts, i.e., as soon as
+     * all its producers have completed them. Parts are collected up to the
+     * batch size of the service so that pipelining does not lead to more calls.
+     */
+    protected class Pipeline {
+        protected final Invocation invocation;
+        protected final Map<MutableBindingSet, AtomicInteger> waiting = new IdentityHashMap<>();
+        protected final List<MutableBindingSet> ready = new ArrayList<>();
+        protected final List<CompletableFuture<Boolean>> parts = new ArrayList<>();
+        protected final long partSize;
+
+        /**
+         * creates a new pipeline
+         *
+         * @param invocation the dependent invocation
+         * @param producers  the number of invocations it depends on
+         */
+        protected Pipeline(Invocation invocation, int producers) {
+            this.invocation = invocation;
+            this.partSize = Math.max(1, invocation.service.getBatch());
+            for (MutableBindingSet binding : bindings) {
+                waiting.put(binding, new AtomicInteger(producers));
+            }
+        }
+
+        /**
+         * takes notice of bindings which a producer has completed
+         *
+         * @param completed the completed bindings
+         */
+        protected synchronized void produced(Collection<MutableBindingSet> completed) {
+            for (MutableBindingSet binding : completed) {
+                AtomicInteger count = waiting.get(binding);
+                if (count != null && count.decrementAndGet() == 0) {
+                    ready.add(binding);
+                }
+            }
+            if (ready.size() >= partSize) {
+                flush();
+            }
+        }
+
+        /**
+         * starts the execution of the ready bindings
+         */
+        protected synchronized void flush() {
+            if (ready.isEmpty()) {
+                return;
+            }
+            Part part = new Part(new ArrayList<>(ready));
+            ready.clear();
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Invocation %s executes a part of %d bindings", invocation.key, part.bindings.size()));
+            }
+            parts.add(invocation.executeAsync(connection, part));
+        }
+
+        /**
+         * starts the remaining bindings after all producers are done
+         *
+         * @return future of all parts
+         */
+        protected synchronized CompletableFuture<Boolean> drain() {
+            flush();
+            return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).thenApply(done -> true);
+        }
+    }
+
+    /**
+     * a part of the bindings which is executed by a pipeline
+     */
+    protected class Part implements BindingHost {
+        protected final List<MutableBindingSet> bindings;
+
+        protected Part(List<MutableBindingSet> bindings) {
+            this.bindings = bindings;
+        }
+
+        @Override
+        public Set<String> getVariables() {
+            return QueryExecutor.this.getVariables();
+        }
+
+        @Override
+        public Collection<MutableBindingSet> getBindings() {
+            return bindings;
+        }
+
+        @Override
+        public CompletableFuture<Void> ready() {
+            return QueryExecutor.this.ready();
+        }
+
+        @Override
+        public void completed(Invocation invocation, Collection<MutableBindingSet> completed) {
+            QueryExecutor.this.completed(invocation, completed);
         }
-        node.getProjectionElemList().visit(this);
     }
 
     @Override
@@ -510,9 +1076,22 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
         node.visitChildren(this);
     }
 
+    /**
+     * removes duplicate rows while streaming, remembering only the recent projected rows
+     *
+     * @param node the reduced
+     * @throws SailException if the argument is not supported
+     */
     @Override
     public void meet(Reduced node) throws SailException {
-        throw new SailException(String.format("No support for %s", node));
+        logger.debug(String.format("Visiting a reduced %s", node.getClass()));
+        distincts = Collections.newSetFromMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BatchKey<Value>, Boolean> eldest) {
+                return size() > REDUCED_WINDOW;
+            }
+        });
+        node.getArg().visit(this);
     }
 
     @Override
@@ -540,17 +1119,49 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
         throw new SailException(String.format("No support for %s", node));
     }
 
+    /**
+     * records the offset and limit of the result. As rows are streamed in the
+     * order of completion, the invocations are stopped as soon as enough rows
+     * have been handed out.
+     *
+     * @param node the slice
+     * @throws SailException if there are nested slices
+     */
     @Override
     public void meet(Slice node) throws SailException {
-        throw new SailException(String.format("No support for %s", node));
+        logger.debug(String.format("Visiting a slice %s", node.getClass()));
+        if (offset > 0 || limit >= 0) {
+            throw new SailException(String.format("No support for nested %s", node));
+        }
+        if (node.hasOffset()) {
+            offset = node.getOffset();
+        }
+        if (node.hasLimit()) {
+            limit = node.getLimit();
+        }
+        node.getArg().visit(this);
+    }
+
+    /**
+     * stops all invocations and ends the stream, because enough rows have been handed out
+     * or the stream has been closed
+     */
+    protected void stop() {
+        if (cancelled.compareAndSet(false, true)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("No further rows are needed, stopping the invocations.");
+            }
+            invocations.values().forEach(Invocation::cancel);
+            stream.finish(null);
+        }
     }
 
     @Override
     public void meet(StatementPattern statement) throws SailException {
         Var predicate = statement.getPredicateVar();
         Var object = statement.getObjectVar();
-        if (bindings.isEmpty()) {
-            bindings.add(new MapBindingSet());
+        if (bindings.isEmpty() && !filtered) {
+            table.addRow();
         }
         if (!predicate.hasValue() || !predicate.getValue().isIRI()) {
             throw new SailException(String.format("No support for non-IRI predicate binding %s", predicate));
@@ -564,9 +1175,11 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
             if (!subject.hasValue()) {
                 String key = String.format("?invocation=%d", connection.remotingSail.getNextId());
                 IRI invocationIri = connection.remotingSail.getValueFactory().createIRI(objectIri.getNamespace(), key);
+                int slot = table.slot(subject.getName());
                 for (MutableBindingSet binding : bindings) {
-                    binding.addBinding(subject.getName(), invocationIri);
+                    ((BindingTable.Row) binding).setValue(slot, invocationIri);
                 }
+                subjects.put(subject.getName(), invocationIri);
                 subject = new Var(subject.getName(), invocationIri);
             } else {
                 if (!subject.getValue().isIRI()) {
@@ -588,17 +1201,23 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
             } else {
                 invocation = new Invocation(connection);
                 invocation.service = ic;
-                invocation.key = (IRI) bindings.get(0).getBinding(subject.getName()).getValue();
+                invocation.instances = instances;
+                invocation.cancelled = cancelled;
+                invocation.key = (IRI) subject.getValue();
                 logger.debug(String.format("Registering a new invocation %s for service type %s", subject.getValue(), invocation.service));
                 invocations.put(subject.getValue(), invocation);
             }
         } else {
             Var subject = statement.getSubjectVar();
             if (!subject.hasValue()) {
-                if (!bindings.get(0).hasBinding(subject.getName())) {
-                    throw new SailException(String.format("Subject variable %s not bound to invocation or result.", subject.getName()));
+                Value invocationIri = subjects.get(subject.getName());
+                if (invocationIri == null) {
+                    if (bindings.isEmpty() || !bindings.get(0).hasBinding(subject.getName())) {
+                        throw new SailException(String.format("Subject variable %s not bound to invocation or result.", subject.getName()));
+                    }
+                    invocationIri = bindings.get(0).getValue(subject.getName());
                 }
-                subject = new Var(subject.getName(), bindings.get(0).getValue(subject.getName()));
+                subject = new Var(subject.getName(), invocationIri);
             }
             if (!invocations.containsKey(subject.getValue())) {
                 throw new SailException(String.format("Trying to bind argument predicate %s to non existent invocation %s. " +
@@ -608,6 +1227,10 @@ public class QueryExecutor implements QueryModelVisitor<SailException>, BindingH
             IRI argument = (IRI) predicate.getValue();
             if (invocation.service.getResult().getOutputs().containsKey(argument.stringValue())) {
                 invocation.outputs.put(object, argument);
+                if (!object.hasValue()) {
+                    // outputs get their slot at plan time
+                    table.slot(object.getName());
+                }
             } else if (invocation.service.getArguments().containsKey(argument.stringValue())) {
                 invocation.inputs.put(argument.stringValue(), object);
             } else {
@@ -16,13 +16,34 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.eclipse.tractusx.agents.remoting;
 
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.helpers.AbstractSail;
 import org.eclipse.tractusx.agents.remoting.config.RemotingSailConfig;
+import org.eclipse.tractusx.agents.remoting.config.ServiceConfig;
+import org.eclipse.tractusx.agents.remoting.util.BatchKey;
+import org.eclipse.tractusx.agents.remoting.util.ResultCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Implements a pseudo-storage that is backed by a remote service
  */
@@ -40,6 +61,49 @@ public class RemotingSail extends AbstractSail {
      */
     protected RemotingSailConfig config;
 
+    /**
+     * long-lived, pooled http clients per service
+     */
+    protected final Map<ServiceConfig, CloseableHttpClient> httpClients = new ConcurrentHashMap<>();
+
+    /**
+     * result caches of the services which enable caching
+     */
+    protected final Map<ServiceConfig, ResultCache> resultCaches = new ConcurrentHashMap<>();
+
+    /**
+     * the calls per service which are currently in flight, by argument tuple and requested outputs
+     */
+    protected final Map<ServiceConfig, Map<BatchKey<Value>, Invocation.Flight>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * the number of pending asynchronous calls per service
+     */
+    protected final Map<ServiceConfig, AtomicInteger> pending = new ConcurrentHashMap<>();
+
+    /**
+     * the instances of class services in singleton scope
+     */
+    protected final Map<ServiceConfig, Object> singletons = new ConcurrentHashMap<>();
+
+    /**
+     * the idle instances of class services in pooled scope
+     */
+    protected final Map<ServiceConfig, Deque<Object>> pools = new ConcurrentHashMap<>();
+
+    /**
+     * executes concurrent parts of invocations. The number of threads is bounded,
+     * further parts are queued until a thread becomes available. The queue is bounded, too,
+     * parts beyond it are rejected and fail their query.
+     */
+    protected final AtomicInteger threadCount = new AtomicInteger(0);
+    protected final ThreadPoolExecutor executor;
+
+    /**
+     * computes pure class functions, created on first use
+     */
+    protected ForkJoinPool computePool;
+
     /**
      * creates the remoting sail
      *
@@ -50,6 +114,34 @@ public class RemotingSail extends AbstractSail {
         if (logger.isDebugEnabled()) {
             logger.debug(String.format("Starting remoting inference on config %s", this.config));
         }
+        int threads = getIoParallelism();
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Creating an executor with at most %d threads and %d queued tasks", threads, config.getIoQueueSize()));
+        }
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(config.getIoQueueSize()), runnable -> {
+            Thread thread = new Thread(runnable, "remoting-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * computes the number of threads of the executor. Unless configured, each service
+     * may use as many threads as it sends concurrent batches or holds pooled connections.
+     *
+     * @return maximal number of threads performing remote calls and class invocations
+     */
+    protected int getIoParallelism() {
+        if (config.getIoParallelism() > 0) {
+            return config.getIoParallelism();
+        }
+        int threads = 0;
+        for (String service : config.listServices()) {
+            ServiceConfig serviceConfig = config.getService(service);
+            threads += Math.max(serviceConfig.getParallelism(), serviceConfig.getConnectionPoolSize());
+        }
+        return Math.max(1, threads);
     }
 
     /**
@@ -61,6 +153,164 @@ public class RemotingSail extends AbstractSail {
         return count++;
     }
 
+    /**
+     * access
+     *
+     * @return the executor for concurrent parts of invocations
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * access
+     *
+     * @return the pool computing pure class functions
+     */
+    public synchronized ForkJoinPool getComputePool() {
+        if (computePool == null) {
+            int parallelism = config.getComputeParallelism() > 0 ? config.getComputeParallelism() : Runtime.getRuntime().availableProcessors();
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Creating a compute pool with parallelism %d", parallelism));
+            }
+            computePool = new ForkJoinPool(parallelism);
+        }
+        return computePool;
+    }
+
+    /**
+     * access the pooled http client of a given service
+     *
+     * @param service the config of the service
+     * @return a keep-alive http client which is shared by all invocations of the service
+     */
+    public CloseableHttpClient getHttpClient(ServiceConfig service) {
+        return httpClients.computeIfAbsent(service, this::createHttpClient);
+    }
+
+    /**
+     * access the result cache of a given service
+     *
+     * @param service the config of the service
+     * @return the cache shared by all invocations of the service, null if the service does not cache results
+     */
+    public ResultCache getResultCache(ServiceConfig service) {
+        if (service.getCacheTtl() <= 0) {
+            return null;
+        }
+        return resultCaches.computeIfAbsent(service, key -> new ResultCache(key.getCacheTtl(), key.getCacheSize(), key.getCacheBytes()));
+    }
+
+    /**
+     * access the calls of a given service which are currently in flight
+     *
+     * @param service the config of the service
+     * @return map of in-flight keys to the future outputs of the call
+     */
+    public Map<BatchKey<Value>, Invocation.Flight> getInFlight(ServiceConfig service) {
+        return inFlight.computeIfAbsent(service, key -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * access the pending asynchronous calls of a service
+     *
+     * @param service the config of the service
+     * @return counter of the pending calls
+     */
+    public AtomicInteger getPending(ServiceConfig service) {
+        return pending.computeIfAbsent(service, key -> new AtomicInteger(0));
+    }
+
+    /**
+     * obtains an instance of a class service according to its scope
+     *
+     * @param service        the config of the service
+     * @param queryInstances the instances of the current query
+     * @return instance to invoke, must be released after the invocation
+     * @throws SailException if the instance cannot be created
+     */
+    public Object acquireInstance(ServiceConfig service, Map<ServiceConfig, Object> queryInstances) throws SailException {
+        switch (service.getInstanceScope()) {
+            case ServiceConfig.SINGLETON_SCOPE:
+                return singletons.computeIfAbsent(service, key -> key.getClassTarget().newInstance());
+            case ServiceConfig.QUERY_SCOPE:
+                return queryInstances.computeIfAbsent(service, key -> key.getClassTarget().newInstance());
+            case ServiceConfig.POOLED_SCOPE:
+                Object instance = pools.computeIfAbsent(service, key -> new ConcurrentLinkedDeque<>()).pollFirst();
+                return instance != null ? instance : service.getClassTarget().newInstance();
+            default:
+                return service.getClassTarget().newInstance();
+        }
+    }
+
+    /**
+     * gives back an instance of a class service after an invocation. A pooled instance
+     * is closed instead if the pool already holds maxPooled idle instances.
+     *
+     * @param service  the config of the service
+     * @param instance the instance obtained by acquireInstance
+     */
+    public void releaseInstance(ServiceConfig service, Object instance) {
+        switch (service.getInstanceScope()) {
+            case ServiceConfig.POOLED_SCOPE:
+                Deque<Object> pool = pools.computeIfAbsent(service, key -> new ConcurrentLinkedDeque<>());
+                synchronized (pool) {
+                    if (pool.size() < service.getMaxPooled()) {
+                        pool.offerFirst(instance);
+                        break;
+                    }
+                }
+                // the pool is full, so the instance ends here
+                closeInstance(instance);
+                break;
+            case ServiceConfig.INVOCATION_SCOPE:
+                closeInstance(instance);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * ends the lifecycle of an instance of a class service
+     *
+     * @param instance the instance, closed if it is auto-closeable
+     */
+    public void closeInstance(Object instance) {
+        if (instance instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) instance).close();
+            } catch (Exception e) {
+                logger.warn(String.format("Could not close instance %s because of %s. Ignoring.", instance, e));
+            }
+        }
+    }
+
+    /**
+     * creates a pooled http client according to the service config
+     *
+     * @param service the config of the service
+     * @return a new http client
+     */
+    protected CloseableHttpClient createHttpClient(ServiceConfig service) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Creating a http client with pool size %d for service %s", service.getConnectionPoolSize(), service));
+        }
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(service.getConnectionPoolSize());
+        connectionManager.setDefaultMaxPerRoute(service.getConnectionPoolSize());
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(service.getConnectTimeout())
+                .setSocketTimeout(service.getSocketTimeout())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(service.getIdleTimeout(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
     @Override
     public String toString() {
         return super.toString() + "/sail";
@@ -86,6 +336,26 @@ public class RemotingSail extends AbstractSail {
         if (logger.isTraceEnabled()) {
             logger.trace(String.format("shutting down remoting to %s", this.config));
         }
+        for (CloseableHttpClient httpClient : httpClients.values()) {
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                logger.warn(String.format("Could not close http client %s because of %s. Ignoring.", httpClient, e));
+            }
+        }
+        httpClients.clear();
+        resultCaches.clear();
+        singletons.values().forEach(this::closeInstance);
+        singletons.clear();
+        pools.values().forEach(pool -> pool.forEach(this::closeInstance));
+        pools.clear();
+        executor.shutdownNow();
+        synchronized (this) {
+            if (computePool != null) {
+                computePool.shutdownNow();
+                computePool = null;
+            }
+        }
     }
 
     /**
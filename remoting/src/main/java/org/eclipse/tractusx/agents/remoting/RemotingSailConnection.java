@@ -28,21 +28,14 @@ import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.algebra.TupleExpr;
-import org.eclipse.rdf4j.query.impl.ListBindingSet;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.helpers.AbstractSailConnection;
-import org.eclipse.tractusx.agents.remoting.util.BatchKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Implements a connection to a remote service
@@ -175,33 +168,16 @@ public class RemotingSailConnection extends AbstractSailConnection {
             logger.info(String.format("Evaluating tuples %s on dataset %s and bindings %s (including inferred %b) " +
                     "connection to the remoting sail %s wrapping config %s", tupleExpr, dataset, bindings, includeInferred, remotingSail, remotingSail.config));
         }
-        QueryExecutor visitor = new QueryExecutor(this);
+        // rows are handed to the result writer as soon as all invocations have completed them
+        BindingStream stream = new BindingStream();
+        QueryExecutor visitor = new QueryExecutor(this, stream);
+        // a consumer closing the result early does not need the remaining invocations
+        stream.onClose(visitor::stop);
+        // outer bindings (e.g. of a bound join) drive the invocations as a single batched call
+        visitor.seed(bindings);
         tupleExpr.visit(visitor);
-        final Set<BatchKey<Value>> distincts = new HashSet<>();
-        visitor.bindings.forEach(binding -> {
-            BatchKey<Value> key = new BatchKey<>(visitor.outputVariables.values().stream().map(binding::getValue).toArray(Value[]::new));
-            distincts.add(key);
-        });
-        List<String> keys = new ArrayList<String>(visitor.outputVariables.keySet());
-        final Iterator<ListBindingSet> allBindings = distincts.stream().map(key -> new ListBindingSet(keys, key.getComponents())).iterator();
-
-        return new AbstractCloseableIteration<BindingSet, QueryEvaluationException>() {
-
-            @Override
-            public void remove() {
-                allBindings.remove();
-            }
-
-            @Override
-            public BindingSet next() {
-                return allBindings.next();
-            }
-
-            @Override
-            public boolean hasNext() {
-                return allBindings.hasNext();
-            }
-        };
+        visitor.getExecution().whenComplete((result, failure) -> stream.finish(failure));
+        return stream;
     }
 
     /**
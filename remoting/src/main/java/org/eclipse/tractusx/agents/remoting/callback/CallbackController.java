@@ -18,79 +18,372 @@ package org.eclipse.tractusx.agents.remoting.callback;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.tractusx.agents.remoting.Invocation;
+import org.eclipse.tractusx.agents.remoting.util.PathAccessor;
+import org.eclipse.tractusx.agents.remoting.util.XmlPathFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.ModelAndView;
-import org.xml.sax.SAXException;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 
 /**
  * a controller for receiving and synchronizing on
- * asynchronous callbacks
+ * asynchronous callbacks. When several agents are run behind a
+ * load balancer, each agent may be given a node id and the direct
+ * callback addresses of its peers. Callback addresses then carry the
+ * node id of the agent which is waiting for the callback, so that any
+ * other agent can forward the callback to it.
  */
 @Controller
 @RequestMapping("/callback")
-public class CallbackController implements org.springframework.web.servlet.mvc.Controller {
+public class CallbackController implements org.springframework.web.servlet.mvc.Controller, DisposableBean {
+
+    protected static Logger logger = LoggerFactory.getLogger(CallbackController.class);
 
     public static ObjectMapper objectMapper = new ObjectMapper();
 
-    public static final Map<CallbackToken, AtomicReference<Object>> PENDING = new HashMap<>();
+    /**
+     * query parameter of the callback address which denotes the waiting node
+     */
+    public static final String NODE_PARAMETER = "node";
+
+    /**
+     * header which marks a callback as forwarded by a peer
+     */
+    public static final String FORWARDED_HEADER = "X-Callback-Forwarded";
+
+    /**
+     * system property (or environment variable) for the node id of this agent
+     */
+    public static final String NODE_PROPERTY = "cx.remoting.node";
+    public static final String NODE_VARIABLE = "CX_REMOTING_NODE";
+
+    /**
+     * system property (or environment variable) for the peers of this agent as a comma-separated list of id=callbackAddress
+     */
+    public static final String PEERS_PROPERTY = "cx.remoting.peers";
+    public static final String PEERS_VARIABLE = "CX_REMOTING_PEERS";
+
+    /**
+     * system property (or environment variable) for the maximal number of pending calls of this agent, -1 for no limit
+     */
+    public static final String MAX_PENDING_PROPERTY = "cx.remoting.maxPending";
+    public static final String MAX_PENDING_VARIABLE = "CX_REMOTING_MAX_PENDING";
+    public static final int DEFAULT_MAX_PENDING = 10000;
+
+    /**
+     * system property (or environment variable) for the maximal size of a callback in bytes, -1 for no limit
+     */
+    public static final String MAX_CALLBACK_BYTES_PROPERTY = "cx.remoting.maxCallbackBytes";
+    public static final String MAX_CALLBACK_BYTES_VARIABLE = "CX_REMOTING_MAX_CALLBACK_BYTES";
+    public static final long DEFAULT_MAX_CALLBACK_BYTES = 16L * 1024 * 1024;
+
+    /**
+     * the node id of this agent, null if not routing
+     */
+    protected static volatile String node;
+
+    /**
+     * direct callback addresses of the peers by node id
+     */
+    protected static volatile Map<String, String> peers = Map.of();
+
+    /**
+     * client for forwarding callbacks
+     */
+    protected static CloseableHttpClient forwarder;
+
+    /**
+     * maximal number of pending calls of this agent, -1 for no limit
+     */
+    protected static volatile int maxPending = DEFAULT_MAX_PENDING;
+
+    /**
+     * maximal size of a callback in bytes, -1 for no limit
+     */
+    protected static volatile long maxCallbackBytes = DEFAULT_MAX_CALLBACK_BYTES;
+
+    /**
+     * current number of pending calls of this agent
+     */
+    protected static final AtomicInteger OCCUPANCY = new AtomicInteger(0);
+
+    static {
+        configure(System.getProperty(NODE_PROPERTY, System.getenv(NODE_VARIABLE)),
+                System.getProperty(PEERS_PROPERTY, System.getenv(PEERS_VARIABLE)));
+        String pendingLimit = System.getProperty(MAX_PENDING_PROPERTY, System.getenv(MAX_PENDING_VARIABLE));
+        String bytesLimit = System.getProperty(MAX_CALLBACK_BYTES_PROPERTY, System.getenv(MAX_CALLBACK_BYTES_VARIABLE));
+        configureLimits(pendingLimit != null ? Integer.parseInt(pendingLimit.trim()) : DEFAULT_MAX_PENDING,
+                bytesLimit != null ? Long.parseLong(bytesLimit.trim()) : DEFAULT_MAX_CALLBACK_BYTES);
+    }
+
+    /**
+     * the pending calls of a single response path
+     */
+    protected static class PendingCalls {
+        /**
+         * the compiled response path
+         */
+        protected final PathAccessor responsePath;
+        /**
+         * the filter for xml callbacks of the service which waits on the response path
+         */
+        protected volatile XmlPathFilter xmlFilter;
+        /**
+         * result futures by call id
+         */
+        protected final Map<String, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+
+        protected PendingCalls(String responsePath, XmlPathFilter xmlFilter) {
+            this.responsePath = PathAccessor.compile(responsePath);
+            this.xmlFilter = xmlFilter;
+        }
+    }
+
+    /**
+     * pending calls indexed by response path and call id
+     */
+    public static final Map<String, PendingCalls> PENDING = new ConcurrentHashMap<>();
 
     /**
-     * registers a new asynchronous call
+     * configures the routing of callbacks
      *
-     * @param responsePath the path where to look for call ids in the response
-     * @param callId       id of the call/response
-     * @return an atomic reference for the result
+     * @param nodeId    id of this agent, null if callbacks are not routed
+     * @param peerNodes comma-separated list of id=callbackAddress of the other agents, may be null
      */
-    public static CallbackToken register(String responsePath, String callId) {
-        CallbackToken token = new CallbackToken(responsePath, callId);
-        synchronized (PENDING) {
-            AtomicReference<Object> result = PENDING.get(token);
-            if (result == null) {
-                result = new AtomicReference<>();
-                PENDING.put(token, result);
+    public static void configure(String nodeId, String peerNodes) {
+        Map<String, String> nodes = new HashMap<>();
+        if (peerNodes != null) {
+            for (String peer : peerNodes.split(",")) {
+                int separator = peer.indexOf('=');
+                if (separator > 0) {
+                    nodes.put(peer.substring(0, separator).trim(), peer.substring(separator + 1).trim());
+                }
             }
         }
-        return token;
+        if (nodeId != null && nodeId.isBlank()) {
+            nodeId = null;
+        }
+        node = nodeId;
+        peers = Map.copyOf(nodes);
     }
 
     /**
-     * synchronizes on the given asynchronous call
+     * configures the admission of calls and callbacks
      *
-     * @param token of the call
-     * @return asynchronous result
+     * @param pendingLimit maximal number of pending calls of this agent, -1 for no limit
+     * @param bytesLimit   maximal size of a callback in bytes, -1 for no limit
+     */
+    public static void configureLimits(int pendingLimit, long bytesLimit) {
+        maxPending = pendingLimit;
+        maxCallbackBytes = bytesLimit;
+    }
+
+    /**
+     * access
+     *
+     * @return current number of pending calls of this agent
      */
-    public static Object synchronize(CallbackToken token) {
-        AtomicReference<Object> result;
-        synchronized (PENDING) {
-            result = PENDING.get(token);
+    public static int getOccupancy() {
+        return OCCUPANCY.get();
+    }
+
+    /**
+     * access
+     *
+     * @return maximal number of pending calls of this agent, -1 if not limited
+     */
+    public static int getMaxPending() {
+        return maxPending;
+    }
+
+    /**
+     * access
+     *
+     * @return the node id of this agent, null if callbacks are not routed
+     */
+    public static String getNode() {
+        return node;
+    }
+
+    /**
+     * adds the node id of this agent to a callback address
+     *
+     * @param callbackAddress the public callback address
+     * @return routed callback address
+     */
+    public static String route(String callbackAddress) {
+        String nodeId = node;
+        if (nodeId == null || callbackAddress == null) {
+            return callbackAddress;
         }
+        String separator = callbackAddress.contains("?") ? "&" : "?";
+        return callbackAddress + separator + NODE_PARAMETER + "=" + URLEncoder.encode(nodeId, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * registers a new asynchronous call. The call is deregistered
+     * as soon as its result future completes, be it by the callback,
+     * a timeout or a cancellation.
+     *
+     * @param responsePath the path where to look for call ids in the response
+     * @param callId       id of the call/response
+     * @return a token to wait on, null if this agent has too many pending calls
+     */
+    public static CallbackToken register(String responsePath, String callId) {
+        return register(responsePath, callId, XmlPathFilter.CAPTURE_ALL, null, -1);
+    }
+
+    /**
+     * registers a new asynchronous call within a budget. The call is deregistered
+     * and its budget released as soon as its result future completes, be it by the callback,
+     * a timeout or a cancellation. The entry of a response path only exists while it has pending calls.
+     *
+     * @param responsePath the path where to look for call ids in the response
+     * @param callId       id of the call/response
+     * @param budget       counter of the pending calls of the caller, may be null
+     * @param limit        maximal number of pending calls of the caller, -1 for no limit
+     * @return a token to wait on, null if the caller or this agent have too many pending calls
+     */
+    public static CallbackToken register(String responsePath, String callId, AtomicInteger budget, int limit) {
+        return register(responsePath, callId, XmlPathFilter.CAPTURE_ALL, budget, limit);
+    }
+
+    /**
+     * registers a new asynchronous call of a service within a budget. Xml callbacks on the response path are
+     * pruned by the given filter, which therefore has to keep the response path and the results of the service.
+     * If services with different filters wait on the same response path, the complete document is kept.
+     *
+     * @param responsePath the path where to look for call ids in the response
+     * @param callId       id of the call/response
+     * @param xmlFilter    the filter for xml callbacks of the service
+     * @param budget       counter of the pending calls of the caller, may be null
+     * @param limit        maximal number of pending calls of the caller, -1 for no limit
+     * @return a token to wait on, null if the caller or this agent have too many pending calls
+     */
+    public static CallbackToken register(String responsePath, String callId, XmlPathFilter xmlFilter, AtomicInteger budget, int limit) {
+        AtomicReference<CompletableFuture<Object>> registered = new AtomicReference<>();
+        // the entry is created and dropped under the lock of the response path, so a call is never added to a removed entry
+        PENDING.compute(responsePath, (path, pending) -> {
+            PendingCalls entry = pending != null ? pending : new PendingCalls(path, xmlFilter);
+            if (entry.xmlFilter != xmlFilter) {
+                entry.xmlFilter = XmlPathFilter.CAPTURE_ALL;
+            }
+            registered.set(entry.calls.computeIfAbsent(callId, id -> {
+                if (!acquire(budget, limit)) {
+                    return null;
+                }
+                if (!acquire(OCCUPANCY, maxPending)) {
+                    release(budget);
+                    return null;
+                }
+                CompletableFuture<Object> future = new CompletableFuture<>();
+                future.whenComplete((callback, failure) -> deregister(path, id, future, budget));
+                return future;
+            }));
+            return entry.calls.isEmpty() ? null : entry;
+        });
+        CompletableFuture<Object> result = registered.get();
         if (result == null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("Rejecting call %s at an occupancy of %d/%d.", callId, OCCUPANCY.get(), maxPending));
+            }
             return null;
         }
-        int maxrounds = 2;
-        synchronized (result) {
-            while (result.get() == null && 0 < maxrounds--) {
-                try {
-                    result.wait(30000);
-                } catch (InterruptedException ignored) {
-                    // we totally expect this timout to appear
-                }
+        return new CallbackToken(responsePath, callId, result);
+    }
+
+    /**
+     * removes a completed call and releases its budget, drops the entry of the response path when it becomes empty
+     *
+     * @param responsePath the path where to look for call ids in the response
+     * @param callId       id of the call/response
+     * @param future       the result future of the call
+     * @param budget       counter of the pending calls of the caller, may be null
+     */
+    protected static void deregister(String responsePath, String callId, CompletableFuture<Object> future, AtomicInteger budget) {
+        PENDING.computeIfPresent(responsePath, (path, pending) -> {
+            if (pending.calls.remove(callId, future)) {
+                release(budget);
+                release(OCCUPANCY);
             }
-            return result.get();
+            return pending.calls.isEmpty() ? null : pending;
+        });
+    }
+
+    /**
+     * acquires a slot of a budget
+     *
+     * @param budget counter of pending calls, may be null
+     * @param limit  maximal number of pending calls, -1 for no limit
+     * @return whether the slot has been acquired
+     */
+    protected static boolean acquire(AtomicInteger budget, int limit) {
+        if (budget == null) {
+            return true;
+        }
+        if (budget.incrementAndGet() > limit && limit >= 0) {
+            budget.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * releases a slot of a budget
+     *
+     * @param budget counter of pending calls, may be null
+     */
+    protected static void release(AtomicInteger budget) {
+        if (budget != null) {
+            budget.decrementAndGet();
         }
     }
 
+    /**
+     * waits on the given asynchronous call without blocking
+     *
+     * @param token   of the call
+     * @param timeout time in milliseconds after which the call fails with a timeout
+     * @return future holding the asynchronous result
+     */
+    public static CompletableFuture<Object> await(CallbackToken token, long timeout) {
+        return token.getResult().orTimeout(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * gives up waiting on the given asynchronous call
+     *
+     * @param token of the call
+     */
+    public static void cancel(CallbackToken token) {
+        token.getResult().cancel(false);
+    }
+
     /**
      * the actual request handler
      *
@@ -102,33 +395,147 @@ public class CallbackController implements org.springframework.web.servlet.mvc.C
     @PostMapping
     public ModelAndView handleRequest(javax.servlet.http.HttpServletRequest request, javax.servlet.http.HttpServletResponse response) {
         try {
-            Object callback;
-            if (request.getContentType().contains("json")) {
-                callback = objectMapper.readTree(request.getInputStream());
-            } else if (request.getContentType().contains("xml")) {
-                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-                factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-                DocumentBuilder builder = factory.newDocumentBuilder();
-                callback = builder.parse(request.getInputStream()).getDocumentElement();
-            } else {
-                callback = IOUtils.toString(request.getInputStream());
+            long bytesLimit = maxCallbackBytes;
+            byte[] payload = IOUtils.toByteArray(bytesLimit >= 0 ? new BoundedInputStream(request.getInputStream(), bytesLimit + 1) : request.getInputStream());
+            if (bytesLimit >= 0 && payload.length > bytesLimit) {
+                logger.warn(String.format("Rejecting a callback of more than %d bytes.", bytesLimit));
+                response.setStatus(413);
+                return null;
+            }
+            String contentType = request.getContentType();
+            String target = request.getParameter(NODE_PARAMETER);
+            boolean forwarded = request.getHeader(FORWARDED_HEADER) != null;
+            String thisNode = node;
+            Map<String, String> peerNodes = peers;
+            if (!forwarded && target != null && !target.equals(thisNode) && peerNodes.containsKey(target)) {
+                response.setStatus(forward(peerNodes.get(target), target, payload, contentType));
+                return null;
             }
-            synchronized (PENDING) {
-                for (Map.Entry<CallbackToken, AtomicReference<Object>> callbacks : PENDING.entrySet()) {
-                    String[] paths = callbacks.getKey().getResponsePath().split("\\.");
-                    String callId = Invocation.convertObjectToString(Invocation.traversePath(callback, paths));
-                    if (callbacks.getKey().getCallId().equals(callId)) {
-                        callbacks.getValue().set(callback);
-                        synchronized (callbacks.getValue()) {
-                            callbacks.getValue().notify();
-                        }
+            boolean completed = complete(payload, contentType);
+            if (!completed && !forwarded && target == null) {
+                // we do not know the waiting node, so we ask all peers
+                for (Map.Entry<String, String> peer : peerNodes.entrySet()) {
+                    if (!peer.getKey().equals(thisNode)) {
+                        forward(peer.getValue(), null, payload, contentType);
                     }
                 }
             }
             response.setStatus(200);
-        } catch (IOException | ParserConfigurationException | SAXException jpe) {
+        } catch (IOException jpe) {
             response.setStatus(400);
         }
         return null;
     }
+
+    /**
+     * parses a callback payload
+     *
+     * @param payload     the raw callback
+     * @param contentType the content type of the callback, may be null
+     * @param xmlFilter   the filter for xml callbacks
+     * @return json node, xml element or string
+     * @throws IOException if the payload cannot be parsed
+     */
+    protected static Object parse(byte[] payload, String contentType, XmlPathFilter xmlFilter) throws IOException {
+        if (contentType != null && contentType.contains("json")) {
+            return objectMapper.readTree(payload);
+        } else if (contentType != null && contentType.contains("xml")) {
+            return xmlFilter.read(new ByteArrayInputStream(payload));
+        } else {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * completes the pending calls which a callback is for. Json and text callbacks are parsed once,
+     * xml callbacks once per response path with the filter of the service waiting on it.
+     *
+     * @param payload     the raw callback
+     * @param contentType the content type of the callback, may be null
+     * @return whether a pending call has been completed
+     * @throws IOException if the payload cannot be parsed
+     */
+    protected static boolean complete(byte[] payload, String contentType) throws IOException {
+        boolean xml = contentType != null && !contentType.contains("json") && contentType.contains("xml");
+        Object parsed = xml ? null : parse(payload, contentType, XmlPathFilter.CAPTURE_ALL);
+        boolean completed = false;
+        // extract each response path once and look up the call directly
+        for (PendingCalls pending : PENDING.values()) {
+            Object callback = xml ? parse(payload, contentType, pending.xmlFilter) : parsed;
+            String callId;
+            try {
+                callId = Invocation.convertObjectToString(pending.responsePath.traverse(callback));
+            } catch (SailException e) {
+                continue;
+            }
+            CompletableFuture<Object> result = pending.calls.get(callId);
+            if (result != null) {
+                completed = result.complete(callback) || completed;
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * forwards a callback to a peer
+     *
+     * @param address     direct callback address of the peer
+     * @param target      the node the callback is for, null if unknown
+     * @param payload     the raw callback
+     * @param contentType the content type of the callback, may be null
+     * @return status of the forwarding
+     */
+    protected static int forward(String address, String target, byte[] payload, String contentType) {
+        HttpPost post = new HttpPost(target != null ? address + (address.contains("?") ? "&" : "?") + NODE_PARAMETER + "="
+                + URLEncoder.encode(target, StandardCharsets.UTF_8) : address);
+        post.addHeader(FORWARDED_HEADER, String.valueOf(node));
+        post.setEntity(new ByteArrayEntity(payload, contentType != null ? ContentType.parse(contentType) : null));
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Forwarding callback to %s", post.getURI()));
+        }
+        try (CloseableHttpResponse response = getForwarder().execute(post)) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            return response.getStatusLine().getStatusCode();
+        } catch (IOException e) {
+            logger.warn(String.format("Could not forward callback to %s because of %s.", address, e));
+            return 502;
+        }
+    }
+
+    /**
+     * access
+     *
+     * @return the client for forwarding callbacks
+     */
+    protected static synchronized CloseableHttpClient getForwarder() {
+        if (forwarder == null) {
+            forwarder = HttpClients.createDefault();
+        }
+        return forwarder;
+    }
+
+    /**
+     * closes the client for forwarding callbacks, a later forwarding opens a new one
+     *
+     * @throws IOException if the client cannot be closed
+     */
+    public static synchronized void closeForwarder() throws IOException {
+        if (forwarder != null) {
+            try {
+                forwarder.close();
+            } finally {
+                forwarder = null;
+            }
+        }
+    }
+
+    /**
+     * shuts down the controller
+     *
+     * @throws IOException if the forwarding client cannot be closed
+     */
+    @Override
+    public void destroy() throws IOException {
+        closeForwarder();
+    }
 }
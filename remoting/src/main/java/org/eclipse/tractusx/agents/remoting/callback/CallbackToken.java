@@ -16,6 +16,8 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.eclipse.tractusx.agents.remoting.callback;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A callback token that may used to
  * synchronized and analyze asynchronous
@@ -25,6 +27,7 @@ public class CallbackToken {
 
     protected String responsePath;
     protected String callId;
+    protected CompletableFuture<Object> result;
 
     /**
      * create a new token
@@ -33,8 +36,20 @@ public class CallbackToken {
      * @param callId       the callid to look for
      */
     public CallbackToken(String responsePath, String callId) {
+        this(responsePath, callId, new CompletableFuture<>());
+    }
+
+    /**
+     * create a new token
+     *
+     * @param responsePath the path where we expect call id in the response
+     * @param callId       the callid to look for
+     * @param result       the future which is completed by the callback
+     */
+    public CallbackToken(String responsePath, String callId, CompletableFuture<Object> result) {
         this.responsePath = responsePath;
         this.callId = callId;
+        this.result = result;
     }
 
     /**
@@ -55,6 +70,15 @@ public class CallbackToken {
         return responsePath;
     }
 
+    /**
+     * access
+     *
+     * @return the future which is completed by the callback
+     */
+    public CompletableFuture<Object> getResult() {
+        return result;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return super.equals(obj) || (obj instanceof CallbackToken &&
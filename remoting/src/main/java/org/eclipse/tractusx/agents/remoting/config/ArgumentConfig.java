@@ -17,6 +17,7 @@
 package org.eclipse.tractusx.agents.remoting.config;
 
 import org.eclipse.rdf4j.sail.config.SailConfigException;
+import org.eclipse.tractusx.agents.remoting.Invocation;
 
 /**
  * represents the config of an argument
@@ -46,6 +47,16 @@ public class ArgumentConfig {
      */
     protected int priority = 100;
 
+    /**
+     * the split argument paths if the argument name is not a template, null if not yet compiled
+     */
+    protected String[][] argumentPaths;
+
+    /**
+     * whether the argument name contains references to other arguments
+     */
+    protected boolean templated;
+
     /**
      * access
      *
@@ -62,6 +73,28 @@ public class ArgumentConfig {
      */
     public void setArgumentName(String argumentName) {
         this.argumentName = argumentName;
+        this.argumentPaths = null;
+    }
+
+    /**
+     * access
+     *
+     * @return the comma-separated paths of the argument name, each split into its dot-separated fields,
+     *     null if the argument name is a template that needs to be resolved per binding
+     */
+    public String[][] getArgumentPaths() {
+        if (argumentPaths == null && argumentName != null) {
+            compile();
+        }
+        return templated ? null : argumentPaths;
+    }
+
+    /**
+     * splits the argument name once
+     */
+    protected void compile() {
+        templated = Invocation.ARGUMENT_PATTERN.matcher(argumentName).find();
+        argumentPaths = Invocation.splitPaths(argumentName);
     }
 
     /**
@@ -110,6 +143,7 @@ public class ArgumentConfig {
         if (argumentName == null || argumentName.length() == 0) {
             throw new SailConfigException(String.format("Only support named arguments %s.", context));
         }
+        compile();
     }
 
     @Override
@@ -49,6 +49,10 @@ public class RemotingSailConfig extends AbstractSailImplConfig {
     public static final String CONFIG_NAMESPACE = "https://w3id.org/catenax/ontology/function#";
     public static final String COMMON_NAMESPACE = "https://w3id.org/catenax/ontology/common#";
     public static final String CALLBACK_NAME = "callbackAddress";
+    public static final String COMPUTE_PARALLELISM_NAME = "computeParallelism";
+    public static final String IO_PARALLELISM_NAME = "ioParallelism";
+    public static final String IO_QUEUE_SIZE_NAME = "ioQueueSize";
+    public static final int DEFAULT_IO_QUEUE_SIZE = 10000;
     public static final String FUNCTION_NAME = "Function";
     public static final String AUTHENTICATION_CODE = "authenticationCode";
     public static final String AUTHENTICATION_KEY = "authenticationKey";
@@ -74,6 +78,20 @@ public class RemotingSailConfig extends AbstractSailImplConfig {
     public static final String INVOCATION_PROPERTY = "supportsInvocation";
     public static final String URL_ATTRIBUTE = "targetUri";
     public static final String METHOD_ATTRIBUTE = "invocationMethod";
+    public static final String PARALLELISM_ATTRIBUTE = "parallelism";
+    public static final String POOL_SIZE_ATTRIBUTE = "connectionPoolSize";
+    public static final String IDLE_TIMEOUT_ATTRIBUTE = "idleTimeout";
+    public static final String CONNECT_TIMEOUT_ATTRIBUTE = "connectTimeout";
+    public static final String SOCKET_TIMEOUT_ATTRIBUTE = "socketTimeout";
+    public static final String CACHE_TTL_ATTRIBUTE = "cacheTtl";
+    public static final String CACHE_SIZE_ATTRIBUTE = "cacheSize";
+    public static final String CACHE_BYTES_ATTRIBUTE = "cacheBytes";
+    public static final String COALESCE_ATTRIBUTE = "coalesce";
+    public static final String CALLBACK_TIMEOUT_ATTRIBUTE = "callbackTimeout";
+    public static final String MAX_PENDING_ATTRIBUTE = "maxPending";
+    public static final String INSTANCE_SCOPE_ATTRIBUTE = "instanceScope";
+    public static final String MAX_POOLED_ATTRIBUTE = "maxPooled";
+    public static final String PURE_ATTRIBUTE = "pure";
 
     /**
      * when interacting with parser/exporter
@@ -85,6 +103,9 @@ public class RemotingSailConfig extends AbstractSailImplConfig {
      */
     protected IRI supportsInvocationPredicate = vf.createIRI(CONFIG_NAMESPACE, INVOCATION_PROPERTY);
     protected IRI callbackAddressPredicate = vf.createIRI(CONFIG_NAMESPACE, CALLBACK_NAME);
+    protected IRI computeParallelismPredicate = vf.createIRI(CONFIG_NAMESPACE, COMPUTE_PARALLELISM_NAME);
+    protected IRI ioParallelismPredicate = vf.createIRI(CONFIG_NAMESPACE, IO_PARALLELISM_NAME);
+    protected IRI ioQueueSizePredicate = vf.createIRI(CONFIG_NAMESPACE, IO_QUEUE_SIZE_NAME);
     protected IRI targetUriPredicate = vf.createIRI(CONFIG_NAMESPACE, URL_ATTRIBUTE);
     protected IRI invocationMethodPredicate = vf.createIRI(CONFIG_NAMESPACE, METHOD_ATTRIBUTE);
     protected IRI inputPredicate = vf.createIRI(CONFIG_NAMESPACE, INPUT_ATTRIBUTE);
@@ -105,6 +126,20 @@ public class RemotingSailConfig extends AbstractSailImplConfig {
     protected IRI inputPropertyPredicate = vf.createIRI(CONFIG_NAMESPACE, INPUT_PROPERTY_ATTRIBUTE);
     protected IRI outputPropertyPredicate = vf.createIRI(CONFIG_NAMESPACE, OUTPUT_PROPERTY_ATTRIBUTE);
     protected IRI dataTypePredicate = vf.createIRI(CONFIG_NAMESPACE, TYPE_RELATION);
+    protected IRI parallelismPredicate = vf.createIRI(CONFIG_NAMESPACE, PARALLELISM_ATTRIBUTE);
+    protected IRI poolSizePredicate = vf.createIRI(CONFIG_NAMESPACE, POOL_SIZE_ATTRIBUTE);
+    protected IRI idleTimeoutPredicate = vf.createIRI(CONFIG_NAMESPACE, IDLE_TIMEOUT_ATTRIBUTE);
+    protected IRI connectTimeoutPredicate = vf.createIRI(CONFIG_NAMESPACE, CONNECT_TIMEOUT_ATTRIBUTE);
+    protected IRI socketTimeoutPredicate = vf.createIRI(CONFIG_NAMESPACE, SOCKET_TIMEOUT_ATTRIBUTE);
+    protected IRI cacheTtlPredicate = vf.createIRI(CONFIG_NAMESPACE, CACHE_TTL_ATTRIBUTE);
+    protected IRI cacheSizePredicate = vf.createIRI(CONFIG_NAMESPACE, CACHE_SIZE_ATTRIBUTE);
+    protected IRI cacheBytesPredicate = vf.createIRI(CONFIG_NAMESPACE, CACHE_BYTES_ATTRIBUTE);
+    protected IRI coalescePredicate = vf.createIRI(CONFIG_NAMESPACE, COALESCE_ATTRIBUTE);
+    protected IRI callbackTimeoutPredicate = vf.createIRI(CONFIG_NAMESPACE, CALLBACK_TIMEOUT_ATTRIBUTE);
+    protected IRI maxPendingPredicate = vf.createIRI(CONFIG_NAMESPACE, MAX_PENDING_ATTRIBUTE);
+    protected IRI instanceScopePredicate = vf.createIRI(CONFIG_NAMESPACE, INSTANCE_SCOPE_ATTRIBUTE);
+    protected IRI maxPooledPredicate = vf.createIRI(CONFIG_NAMESPACE, MAX_POOLED_ATTRIBUTE);
+    protected IRI purePredicate = vf.createIRI(CONFIG_NAMESPACE, PURE_ATTRIBUTE);
     protected IRI apredicate = vf.createIRI("http://www.w3.org/1999/02/22-rdf-syntax-ns#", "type");
     protected IRI functionClass = vf.createIRI(CONFIG_NAMESPACE, FUNCTION_NAME);
     protected IRI resultClass = vf.createIRI(CONFIG_NAMESPACE, RESULT_NAME);
@@ -120,6 +155,21 @@ public class RemotingSailConfig extends AbstractSailImplConfig {
 
     String callbackAddress;
 
+    /**
+     * the number of threads computing pure class functions, -1 for the number of processors
+     */
+    int computeParallelism = -1;
+
+    /**
+     * the number of threads performing remote calls and class invocations, -1 to derive it from the services
+     */
+    int ioParallelism = -1;
+
+    /**
+     * the number of tasks which may wait for a thread performing remote calls and class invocations
+     */
+    int ioQueueSize = DEFAULT_IO_QUEUE_SIZE;
+
     public ValueFactory getValueFactory() {
         return vf;
     }
@@ -128,6 +178,60 @@ public class RemotingSailConfig extends AbstractSailImplConfig {
         return callbackAddress;
     }
 
+    /**
+     * access
+     *
+     * @return the number of threads computing pure class functions, -1 for the number of processors
+     */
+    public int getComputeParallelism() {
+        return computeParallelism;
+    }
+
+    /**
+     * sets
+     *
+     * @param computeParallelism the number of threads computing pure class functions, -1 for the number of processors
+     */
+    public void setComputeParallelism(int computeParallelism) {
+        this.computeParallelism = computeParallelism;
+    }
+
+    /**
+     * access
+     *
+     * @return the number of threads performing remote calls and class invocations, -1 to derive it from the services
+     */
+    public int getIoParallelism() {
+        return ioParallelism;
+    }
+
+    /**
+     * sets
+     *
+     * @param ioParallelism the number of threads performing remote calls and class invocations, -1 to derive it from the services
+     */
+    public void setIoParallelism(int ioParallelism) {
+        this.ioParallelism = ioParallelism;
+    }
+
+    /**
+     * access
+     *
+     * @return the number of tasks which may wait for a thread, further tasks are rejected
+     */
+    public int getIoQueueSize() {
+        return ioQueueSize;
+    }
+
+    /**
+     * sets
+     *
+     * @param ioQueueSize the number of tasks which may wait for a thread, further tasks are rejected
+     */
+    public void setIoQueueSize(int ioQueueSize) {
+        this.ioQueueSize = ioQueueSize;
+    }
+
     /**
      * create a new config
      */
@@ -190,6 +294,15 @@ public class RemotingSailConfig extends AbstractSailImplConfig {
             logger.debug("About to validate.");
         }
         super.validate();
+        if (computeParallelism != -1 && computeParallelism < 1) {
+            throw new SailConfigException("The repository-wide computeParallelism must be positive or -1.");
+        }
+        if (ioParallelism != -1 && ioParallelism < 1) {
+            throw new SailConfigException("The repository-wide ioParallelism must be positive or -1.");
+        }
+        if (ioQueueSize < 1) {
+            throw new SailConfigException("The repository-wide ioQueueSize must be positive.");
+        }
         for (Map.Entry<String, ServiceConfig> configs : services.entrySet()) {
             if (configs.getValue().callbackProperty != null) {
                 if (callbackAddress == null) {
@@ -212,6 +325,15 @@ public class RemotingSailConfig extends AbstractSailImplConfig {
         if (callbackAddress != null) {
             model.add(repoNode, callbackAddressPredicate, vf.createIRI(callbackAddress));
         }
+        if (computeParallelism != -1) {
+            model.add(repoNode, computeParallelismPredicate, vf.createLiteral(computeParallelism));
+        }
+        if (ioParallelism != -1) {
+            model.add(repoNode, ioParallelismPredicate, vf.createLiteral(ioParallelism));
+        }
+        if (ioQueueSize != DEFAULT_IO_QUEUE_SIZE) {
+            model.add(repoNode, ioQueueSizePredicate, vf.createLiteral(ioQueueSize));
+        }
         for (Map.Entry<String, ServiceConfig> func : services.entrySet()) {
             IRI functionNode = vf.createIRI(func.getKey());
             model.add(repoNode, supportsInvocationPredicate, functionNode);
@@ -219,6 +341,20 @@ public class RemotingSailConfig extends AbstractSailImplConfig {
             model.add(functionNode, targetUriPredicate, vf.createLiteral(func.getValue().targetUri));
             model.add(functionNode, invocationMethodPredicate, vf.createLiteral(func.getValue().method));
             model.add(functionNode, batchPredicate, vf.createLiteral(func.getValue().batch));
+            model.add(functionNode, parallelismPredicate, vf.createLiteral(func.getValue().parallelism));
+            model.add(functionNode, poolSizePredicate, vf.createLiteral(func.getValue().connectionPoolSize));
+            model.add(functionNode, idleTimeoutPredicate, vf.createLiteral(func.getValue().idleTimeout));
+            model.add(functionNode, connectTimeoutPredicate, vf.createLiteral(func.getValue().connectTimeout));
+            model.add(functionNode, socketTimeoutPredicate, vf.createLiteral(func.getValue().socketTimeout));
+            model.add(functionNode, cacheTtlPredicate, vf.createLiteral(func.getValue().cacheTtl));
+            model.add(functionNode, cacheSizePredicate, vf.createLiteral(func.getValue().cacheSize));
+            model.add(functionNode, cacheBytesPredicate, vf.createLiteral(func.getValue().cacheBytes));
+            model.add(functionNode, coalescePredicate, vf.createLiteral(func.getValue().coalesce));
+            model.add(functionNode, callbackTimeoutPredicate, vf.createLiteral(func.getValue().callbackTimeout));
+            model.add(functionNode, maxPendingPredicate, vf.createLiteral(func.getValue().maxPending));
+            model.add(functionNode, instanceScopePredicate, vf.createLiteral(func.getValue().instanceScope));
+            model.add(functionNode, maxPooledPredicate, vf.createLiteral(func.getValue().maxPooled));
+            model.add(functionNode, purePredicate, vf.createLiteral(func.getValue().pure));
             if (func.getValue().callbackProperty != null) {
                 model.add(functionNode, callbackPredicate, vf.createLiteral(func.getValue().callbackProperty));
             }
@@ -279,6 +415,12 @@ public class RemotingSailConfig extends AbstractSailImplConfig {
         }
         super.parse(model, implNode);
         model.getStatements(implNode, callbackAddressPredicate, null).forEach(statement -> callbackAddress = statement.getObject().stringValue());
+        Models.objectLiteral(model.filter(implNode, computeParallelismPredicate, null))
+                .ifPresent(parallelism -> computeParallelism = parallelism.intValue());
+        Models.objectLiteral(model.filter(implNode, ioParallelismPredicate, null))
+                .ifPresent(parallelism -> ioParallelism = parallelism.intValue());
+        Models.objectLiteral(model.filter(implNode, ioQueueSizePredicate, null))
+                .ifPresent(size -> ioQueueSize = size.intValue());
         model.getStatements(implNode, supportsInvocationPredicate, null).forEach(statement -> {
             if (logger.isDebugEnabled()) {
                 logger.debug(String.format("About to process function from statement %s.", statement));
@@ -295,6 +437,34 @@ public class RemotingSailConfig extends AbstractSailImplConfig {
                     .ifPresent(invocationMethod -> ic.method = invocationMethod.stringValue());
             Models.objectLiteral(model.filter(functionNode, batchPredicate, null))
                     .ifPresent(batch -> ic.batch = batch.longValue());
+            Models.objectLiteral(model.filter(functionNode, parallelismPredicate, null))
+                    .ifPresent(parallelism -> ic.parallelism = parallelism.intValue());
+            Models.objectLiteral(model.filter(functionNode, poolSizePredicate, null))
+                    .ifPresent(poolSize -> ic.connectionPoolSize = poolSize.intValue());
+            Models.objectLiteral(model.filter(functionNode, idleTimeoutPredicate, null))
+                    .ifPresent(idleTimeout -> ic.idleTimeout = idleTimeout.longValue());
+            Models.objectLiteral(model.filter(functionNode, connectTimeoutPredicate, null))
+                    .ifPresent(connectTimeout -> ic.connectTimeout = connectTimeout.intValue());
+            Models.objectLiteral(model.filter(functionNode, socketTimeoutPredicate, null))
+                    .ifPresent(socketTimeout -> ic.socketTimeout = socketTimeout.intValue());
+            Models.objectLiteral(model.filter(functionNode, cacheTtlPredicate, null))
+                    .ifPresent(cacheTtl -> ic.cacheTtl = cacheTtl.longValue());
+            Models.objectLiteral(model.filter(functionNode, cacheSizePredicate, null))
+                    .ifPresent(cacheSize -> ic.cacheSize = cacheSize.intValue());
+            Models.objectLiteral(model.filter(functionNode, cacheBytesPredicate, null))
+                    .ifPresent(cacheBytes -> ic.cacheBytes = cacheBytes.longValue());
+            Models.objectLiteral(model.filter(functionNode, coalescePredicate, null))
+                    .ifPresent(coalesce -> ic.coalesce = coalesce.booleanValue());
+            Models.objectLiteral(model.filter(functionNode, callbackTimeoutPredicate, null))
+                    .ifPresent(callbackTimeout -> ic.callbackTimeout = callbackTimeout.longValue());
+            Models.objectLiteral(model.filter(functionNode, maxPendingPredicate, null))
+                    .ifPresent(maxPending -> ic.maxPending = maxPending.intValue());
+            Models.objectLiteral(model.filter(functionNode, instanceScopePredicate, null))
+                    .ifPresent(scope -> ic.instanceScope = scope.stringValue());
+            Models.objectLiteral(model.filter(functionNode, maxPooledPredicate, null))
+                    .ifPresent(maxPooled -> ic.maxPooled = maxPooled.intValue());
+            Models.objectLiteral(model.filter(functionNode, purePredicate, null))
+                    .ifPresent(pure -> ic.pure = pure.booleanValue());
             Models.objectLiteral(model.filter(functionNode, callbackPredicate, null))
                     .ifPresent(async -> ic.callbackProperty = async.stringValue());
             Models.objectLiteral(model.filter(functionNode, inputPropertyPredicate, null))
@@ -17,8 +17,13 @@
 package org.eclipse.tractusx.agents.remoting.config;
 
 import org.eclipse.rdf4j.sail.config.SailConfigException;
+import org.eclipse.tractusx.agents.remoting.util.JsonPathFilter;
+import org.eclipse.tractusx.agents.remoting.util.PathAccessor;
+import org.eclipse.tractusx.agents.remoting.util.XmlPathFilter;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * class to represent a single result description
@@ -63,6 +68,78 @@ public class ResultConfig {
     String correlationInput = null;
     String callbackProperty = null;
 
+    /**
+     * compiled output and result id paths, null if not yet compiled
+     */
+    protected PathAccessor outputAccessor = null;
+    protected PathAccessor resultIdAccessor = null;
+
+    /**
+     * access
+     *
+     * @return the compiled output property path
+     */
+    public PathAccessor getOutputAccessor() {
+        if (outputAccessor == null) {
+            outputAccessor = PathAccessor.compile(outputProperty);
+        }
+        return outputAccessor;
+    }
+
+    /**
+     * access
+     *
+     * @return the compiled result id property path
+     */
+    public PathAccessor getResultIdAccessor() {
+        if (resultIdAccessor == null) {
+            resultIdAccessor = PathAccessor.compile(resultIdProperty);
+        }
+        return resultIdAccessor;
+    }
+
+    /**
+     * the streaming extractor for json results, compiled during validation
+     */
+    protected JsonPathFilter jsonFilter = null;
+
+    /**
+     * access
+     *
+     * @return the streaming extractor for json results, null if not validated yet
+     */
+    public JsonPathFilter getJsonFilter() {
+        return jsonFilter;
+    }
+
+    /**
+     * the streaming extractor for xml results, compiled during validation
+     */
+    protected XmlPathFilter xmlFilter = null;
+
+    /**
+     * access
+     *
+     * @return the streaming extractor for xml results, null if not validated yet
+     */
+    public XmlPathFilter getXmlFilter() {
+        return xmlFilter;
+    }
+
+    /**
+     * the streaming extractor for xml callbacks, compiled during validation
+     */
+    protected XmlPathFilter callbackXmlFilter = null;
+
+    /**
+     * access
+     *
+     * @return the streaming extractor for xml callbacks, null if not validated yet
+     */
+    public XmlPathFilter getCallbackXmlFilter() {
+        return callbackXmlFilter;
+    }
+
 
     @Override
     public String toString() {
@@ -81,5 +158,11 @@ public class ResultConfig {
         for (Map.Entry<String, ReturnValueConfig> arg : outputs.entrySet()) {
             arg.getValue().validate(arg.getKey());
         }
+        outputAccessor = PathAccessor.compile(outputProperty);
+        resultIdAccessor = PathAccessor.compile(resultIdProperty);
+        List<String> outputPaths = outputs.values().stream().map(ReturnValueConfig::getPath).collect(Collectors.toList());
+        jsonFilter = JsonPathFilter.compile(outputProperty, resultIdProperty, outputPaths);
+        xmlFilter = XmlPathFilter.compile(outputProperty, resultIdProperty, outputPaths);
+        callbackXmlFilter = XmlPathFilter.compile(outputProperty, resultIdProperty, outputPaths, callbackProperty);
     }
 }
@@ -17,6 +17,8 @@
 package org.eclipse.tractusx.agents.remoting.config;
 
 import org.eclipse.rdf4j.sail.config.SailConfigException;
+import org.eclipse.tractusx.agents.remoting.util.DataTypeConverter;
+import org.eclipse.tractusx.agents.remoting.util.PathAccessor;
 
 /**
  * represents the config of a return value
@@ -30,6 +32,14 @@ public class ReturnValueConfig {
      * default data type is string
      */
     protected String dataType = "http://www.w3.org/2001/XMLSchema#string";
+    /**
+     * compiled path, null if not yet compiled
+     */
+    protected PathAccessor accessor = null;
+    /**
+     * resolved data type converter, null if not yet resolved
+     */
+    protected DataTypeConverter converter = null;
 
 
     @Override
@@ -56,6 +66,8 @@ public class ReturnValueConfig {
             default:
                 throw new SailConfigException(String.format("Data type %s is not supported in return value %s.", dataType, context));
         }
+        accessor = PathAccessor.compile(path);
+        converter = DataTypeConverter.forDataType(dataType);
     }
 
     public String getPath() {
@@ -64,6 +76,19 @@ public class ReturnValueConfig {
 
     public void setPath(String path) {
         this.path = path;
+        this.accessor = null;
+    }
+
+    /**
+     * access
+     *
+     * @return the compiled path
+     */
+    public PathAccessor getAccessor() {
+        if (accessor == null) {
+            accessor = PathAccessor.compile(path);
+        }
+        return accessor;
     }
 
     public String getDataType() {
@@ -72,5 +97,18 @@ public class ReturnValueConfig {
 
     public void setDataType(String dataType) {
         this.dataType = dataType;
+        this.converter = null;
+    }
+
+    /**
+     * access
+     *
+     * @return the converter for the data type, null if the data type is not supported
+     */
+    public DataTypeConverter getConverter() {
+        if (converter == null) {
+            converter = DataTypeConverter.forDataType(dataType);
+        }
+        return converter;
     }
 }
@@ -17,6 +17,7 @@
 package org.eclipse.tractusx.agents.remoting.config;
 
 import org.eclipse.rdf4j.sail.config.SailConfigException;
+import org.eclipse.tractusx.agents.remoting.util.ClassTarget;
 
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -33,6 +34,26 @@ public class ServiceConfig {
     public static Pattern classPattern = Pattern.compile(
             "(?<classType>class):(?<class>[a-zA-Z0-9\\.]+)#(?<method>[a-zA-Z0-9]+)|(?<restType>https?)://(?<url>[a-zA-Z0-9\\.:/%#\\-]+)");
 
+    /**
+     * a fresh instance of a class service for each invocation
+     */
+    public static final String INVOCATION_SCOPE = "invocation";
+
+    /**
+     * one instance of a class service per query
+     */
+    public static final String QUERY_SCOPE = "query";
+
+    /**
+     * one instance of a class service per repository
+     */
+    public static final String SINGLETON_SCOPE = "singleton";
+
+    /**
+     * instances of a class service are reused from a pool, one per concurrent invocation
+     */
+    public static final String POOLED_SCOPE = "pooled";
+
     /**
      * url of the target service
      */
@@ -53,6 +74,11 @@ public class ServiceConfig {
      */
     protected long batch = 1;
 
+    /**
+     * the maximal number of batches which are sent concurrently
+     */
+    protected int parallelism = 1;
+
     /**
      * whether it is an asynchronous call
      */
@@ -73,6 +99,79 @@ public class ServiceConfig {
      */
     protected AuthenticationConfig authentication;
 
+    /**
+     * maximal number of pooled (keep-alive) connections to the target
+     */
+    protected int connectionPoolSize = 20;
+
+    /**
+     * time in milliseconds after which idle pooled connections are evicted
+     */
+    protected long idleTimeout = 30000;
+
+    /**
+     * timeout in milliseconds for establishing a connection, -1 for system default
+     */
+    protected int connectTimeout = -1;
+
+    /**
+     * timeout in milliseconds for waiting on data, -1 for system default
+     */
+    protected int socketTimeout = -1;
+
+    /**
+     * time to live of cached results in milliseconds, 0 disables the cache
+     */
+    protected long cacheTtl = 0;
+
+    /**
+     * maximal number of cached argument tuples
+     */
+    protected int cacheSize = 1000;
+
+    /**
+     * maximal (estimated) memory of the cached results in bytes, -1 for no limit
+     */
+    protected long cacheBytes = -1;
+
+    /**
+     * whether identical rest calls which are in flight are joined instead of being sent again,
+     * only safe for backends whose answer depends on the arguments alone
+     */
+    protected boolean coalesce = false;
+
+    /**
+     * time in milliseconds to wait for the callback of an asynchronous call
+     */
+    protected long callbackTimeout = 60000;
+
+    /**
+     * maximal number of pending asynchronous calls, -1 for no limit
+     */
+    protected int maxPending = 1000;
+
+    /**
+     * the lifecycle of the instances of a class service
+     */
+    protected String instanceScope = INVOCATION_SCOPE;
+
+    /**
+     * maximal number of idle instances kept by the pooled scope
+     */
+    protected int maxPooled = 16;
+
+    /**
+     * whether a class service is free of side effects and thread-safe,
+     * so that its bindings may be computed in parallel and shared
+     * instances may be invoked concurrently
+     */
+    protected boolean pure = false;
+
+    /**
+     * the resolved java method of a class service, compiled in validate
+     */
+    protected ClassTarget classTarget = null;
+
     /**
      * map of arguments
      */
@@ -138,6 +237,33 @@ public class ServiceConfig {
         return batch;
     }
 
+    /**
+     * sets
+     *
+     * @param batch maximal batch size
+     */
+    public void setBatch(long batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * access
+     *
+     * @return maximal number of concurrently sent batches
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * sets
+     *
+     * @param parallelism maximal number of concurrently sent batches
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     /**
      * access
      *
@@ -174,6 +300,189 @@ public class ServiceConfig {
         return authentication;
     }
 
+    /**
+     * access
+     *
+     * @return maximal number of pooled connections
+     */
+    public int getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
+    /**
+     * access
+     *
+     * @return time in milliseconds after which idle connections are evicted
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * access
+     *
+     * @return connect timeout in milliseconds
+     */
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * access
+     *
+     * @return socket timeout in milliseconds
+     */
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    /**
+     * access
+     *
+     * @return time to live of cached results in milliseconds, 0 if results are not cached
+     */
+    public long getCacheTtl() {
+        return cacheTtl;
+    }
+
+    /**
+     * sets
+     *
+     * @param cacheTtl time to live of cached results in milliseconds, 0 disables the cache
+     */
+    public void setCacheTtl(long cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    /**
+     * access
+     *
+     * @return maximal number of cached argument tuples
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * access
+     *
+     * @return maximal estimated memory of the cached results in bytes, -1 if not limited
+     */
+    public long getCacheBytes() {
+        return cacheBytes;
+    }
+
+    /**
+     * access
+     *
+     * @return whether identical rest calls which are in flight are joined
+     */
+    public boolean isCoalesce() {
+        return coalesce;
+    }
+
+    /**
+     * sets
+     *
+     * @param coalesce whether identical rest calls which are in flight are joined
+     */
+    public void setCoalesce(boolean coalesce) {
+        this.coalesce = coalesce;
+    }
+
+    /**
+     * access
+     *
+     * @return time in milliseconds to wait for the callback of an asynchronous call
+     */
+    public long getCallbackTimeout() {
+        return callbackTimeout;
+    }
+
+    /**
+     * sets
+     *
+     * @param callbackTimeout time in milliseconds to wait for the callback of an asynchronous call
+     */
+    public void setCallbackTimeout(long callbackTimeout) {
+        this.callbackTimeout = callbackTimeout;
+    }
+
+    /**
+     * access
+     *
+     * @return maximal number of pending asynchronous calls, -1 if not limited
+     */
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    /**
+     * access
+     *
+     * @return the lifecycle of the instances of a class service
+     */
+    public String getInstanceScope() {
+        return instanceScope;
+    }
+
+    /**
+     * sets
+     *
+     * @param instanceScope the lifecycle of the instances of a class service
+     */
+    public void setInstanceScope(String instanceScope) {
+        this.instanceScope = instanceScope;
+    }
+
+    /**
+     * access
+     *
+     * @return maximal number of idle instances kept by the pooled scope, further instances are closed
+     */
+    public int getMaxPooled() {
+        return maxPooled;
+    }
+
+    /**
+     * sets
+     *
+     * @param maxPooled maximal number of idle instances kept by the pooled scope, further instances are closed
+     */
+    public void setMaxPooled(int maxPooled) {
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * access
+     *
+     * @return whether a class service may be computed in parallel
+     */
+    public boolean isPure() {
+        return pure;
+    }
+
+    /**
+     * sets
+     *
+     * @param pure whether a class service may be computed in parallel
+     */
+    public void setPure(boolean pure) {
+        this.pure = pure;
+    }
+
+    /**
+     * access
+     *
+     * @return the resolved java method of a class service, null for rest services
+     */
+    public ClassTarget getClassTarget() {
+        if (classTarget == null && matcher != null && matcher.group("classType") != null) {
+            classTarget = ClassTarget.compile(matcher.group("class"), matcher.group("method"), arguments);
+        }
+        return classTarget;
+    }
+
     /**
      * access
      *
@@ -247,6 +556,39 @@ public class ServiceConfig {
                     break;
             }
         }
+        if (parallelism < 1) {
+            throw new SailConfigException(String.format("Parallelism of invocation %s must be positive.", context));
+        }
+        if (connectionPoolSize < 1) {
+            throw new SailConfigException(String.format("Connection pool size of invocation %s must be positive.", context));
+        }
+        if (idleTimeout < 1) {
+            throw new SailConfigException(String.format("Idle timeout of invocation %s must be positive.", context));
+        }
+        if (cacheTtl < 0) {
+            throw new SailConfigException(String.format("Cache time to live of invocation %s must not be negative.", context));
+        }
+        if (cacheTtl > 0 && cacheSize < 1) {
+            throw new SailConfigException(String.format("Cache size of invocation %s must be positive.", context));
+        }
+        if (callbackTimeout < 1) {
+            throw new SailConfigException(String.format("Callback timeout of invocation %s must be positive.", context));
+        }
+        if (maxPending < -1) {
+            throw new SailConfigException(String.format("Maximal pending calls of invocation %s must be -1 or more.", context));
+        }
+        if (maxPooled < 1) {
+            throw new SailConfigException(String.format("Maximal pooled instances of invocation %s must be positive.", context));
+        }
+        switch (instanceScope) {
+            case INVOCATION_SCOPE:
+            case QUERY_SCOPE:
+            case SINGLETON_SCOPE:
+            case POOLED_SCOPE:
+                break;
+            default:
+                throw new SailConfigException(String.format("Instance scope %s of invocation %s is not supported.", instanceScope, context));
+        }
         if (callbackProperty != null) {
             if (result.callbackProperty == null) {
                 throw new SailConfigException("There should be a result callbackProperty configured when the invocation callbackProperty is set.");
@@ -265,5 +607,7 @@ public class ServiceConfig {
         if (authentication != null) {
             authentication.validate(context);
         }
+        classTarget = null;
+        getClassTarget();
     }
 }
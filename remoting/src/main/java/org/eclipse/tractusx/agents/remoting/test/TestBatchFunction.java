@@ -0,0 +1,93 @@
+// Copyright (c) 2022,2023 Contributors to the Eclipse Foundation
+//
+// See the NOTICE file(s) distributed with this work for additional
+// information regarding copyright ownership.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Apache License, Version 2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0.
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+// WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+// License for the specific language governing permissions and limitations
+// under the License.
+//
+// SPDX-License-Identifier: Apache-2.0
+package org.eclipse.tractusx.agents.remoting.test;
+
+import org.eclipse.tractusx.agents.remoting.BatchFunction;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * a simple batch function to expose
+ */
+public class TestBatchFunction implements BatchFunction {
+
+    /**
+     * counts the calls of all instances
+     */
+    public static final AtomicInteger CALLS = new AtomicInteger(0);
+
+    /**
+     * counts the created instances
+     */
+    public static final AtomicInteger INSTANCES = new AtomicInteger(0);
+
+    /**
+     * counts the calls which are currently running
+     */
+    public static final AtomicInteger ACTIVE = new AtomicInteger(0);
+
+    /**
+     * the maximal number of calls which ran at the same time
+     */
+    public static final AtomicInteger MAX_ACTIVE = new AtomicInteger(0);
+
+    /**
+     * time in milliseconds each call takes at least
+     */
+    public static volatile long DELAY = 0;
+
+    /**
+     * creates a new instance
+     */
+    public TestBatchFunction() {
+        INSTANCES.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "/testBatch";
+    }
+
+    @Override
+    public Class<?> getArgumentType(String argumentName) {
+        return int.class;
+    }
+
+    /**
+     * adds the operator columns
+     */
+    @Override
+    public Map<String, Object> apply(Map<String, Object> arguments, int size) throws InterruptedException {
+        CALLS.incrementAndGet();
+        MAX_ACTIVE.accumulateAndGet(ACTIVE.incrementAndGet(), Math::max);
+        try {
+            if (DELAY > 0) {
+                Thread.sleep(DELAY);
+            }
+            int[] operator1 = (int[]) arguments.get("arg0");
+            int[] operator2 = (int[]) arguments.get("arg1");
+            int[] result = new int[size];
+            for (int row = 0; row < size; row++) {
+                result[row] = operator1[row] + operator2[row];
+            }
+            return Map.of("", result);
+        } finally {
+            ACTIVE.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+// Copyright (c) 2022,2023 Contributors to the Eclipse Foundation
+//
+// See the NOTICE file(s) distributed with this work for additional
+// information regarding copyright ownership.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Apache License, Version 2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0.
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+// WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+// License for the specific language governing permissions and limitations
+// under the License.
+//
+// SPDX-License-Identifier: Apache-2.0
+package org.eclipse.tractusx.agents.remoting.util;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.config.SailConfigException;
+import org.eclipse.tractusx.agents.remoting.BatchFunction;
+import org.eclipse.tractusx.agents.remoting.Invocation;
+import org.eclipse.tractusx.agents.remoting.config.ArgumentConfig;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * a java method which implements a class: service, resolved once
+ * when the configuration is validated. The method and its parameters are
+ * matched against the arguments of the service and compiled into a method
+ * handle, so that invoking the method per binding is a direct call.
+ * The "apply" method of a {@link BatchFunction} is instead called once per batch.
+ */
+public final class ClassTarget {
+
+    /**
+     * the resolved method (for logging)
+     */
+    private final Method method;
+
+    /**
+     * creates instances: ()Object
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * calls the method: (Object instance, Object[] parameters)Object
+     */
+    private final MethodHandle invoker;
+
+    /**
+     * the argument key which feeds each parameter
+     */
+    private final String[] argumentKeys;
+
+    /**
+     * the converter of each parameter
+     */
+    private final Function<Value, Object>[] converters;
+
+    /**
+     * whether the target is a batch function
+     */
+    private final boolean batch;
+
+    /**
+     * creates a new target
+     *
+     * @param method       resolved method
+     * @param constructor  instance factory
+     * @param invoker      spreading method invoker, null for batch functions
+     * @param argumentKeys argument key of each parameter, null for batch functions
+     * @param converters   converter of each parameter, null for batch functions
+     */
+    private ClassTarget(Method method, MethodHandle constructor, MethodHandle invoker, String[] argumentKeys, Function<Value, Object>[] converters) {
+        this.batch = invoker == null;
+        this.method = method;
+        this.constructor = constructor;
+        this.invoker = invoker;
+        this.argumentKeys = argumentKeys;
+        this.converters = converters;
+    }
+
+    /**
+     * resolves a method. A parameter is fed by the first argument
+     * whose name contains the parameter name.
+     *
+     * @param className  name of the class
+     * @param methodName name of the method
+     * @param arguments  arguments of the service by key
+     * @return compiled target
+     * @throws SailConfigException if the class or a suitable method cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    public static ClassTarget compile(String className, String methodName, Map<String, ArgumentConfig> arguments) throws SailConfigException {
+        Class<?> targetClass;
+        try {
+            targetClass = ClassTarget.class.getClassLoader().loadClass(className);
+        } catch (ClassNotFoundException e) {
+            throw new SailConfigException(String.format("Target class %s could not be found.", className), e);
+        }
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        if (BatchFunction.class.isAssignableFrom(targetClass) && methodName.equals("apply")) {
+            try {
+                MethodHandle constructor = lookup.findConstructor(targetClass, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Object.class));
+                return new ClassTarget(targetClass.getMethod("apply", Map.class, int.class), constructor, null, null, null);
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new SailConfigException(String.format("Target class %s cannot be instantiated or invoked.", className), e);
+            }
+        }
+        for (Method meth : targetClass.getMethods()) {
+            if (!meth.getName().equals(methodName)) {
+                continue;
+            }
+            Parameter[] parameters = meth.getParameters();
+            String[] argumentKeys = new String[parameters.length];
+            Function<Value, Object>[] converters = (Function<Value, Object>[]) new Function<?, ?>[parameters.length];
+            boolean isSuitable = true;
+            for (int index = 0; index < parameters.length && isSuitable; index++) {
+                for (Map.Entry<String, ArgumentConfig> argument : arguments.entrySet()) {
+                    if (argument.getValue().getArgumentName().contains(parameters[index].getName())) {
+                        argumentKeys[index] = argument.getKey();
+                        converters[index] = converterFor(parameters[index].getType());
+                        break;
+                    }
+                }
+                isSuitable = argumentKeys[index] != null;
+            }
+            if (isSuitable) {
+                try {
+                    MethodHandle constructor = lookup.findConstructor(targetClass, MethodType.methodType(void.class))
+                            .asType(MethodType.methodType(Object.class));
+                    MethodHandle handle = lookup.unreflect(meth);
+                    if (Modifier.isStatic(meth.getModifiers())) {
+                        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                    }
+                    MethodHandle invoker = handle.asType(MethodType.genericMethodType(parameters.length + 1))
+                            .asSpreader(1, Object[].class, parameters.length);
+                    return new ClassTarget(meth, constructor, invoker, argumentKeys, converters);
+                } catch (NoSuchMethodException | IllegalAccessException e) {
+                    throw new SailConfigException(String.format("Target class %s cannot be instantiated or invoked.", className), e);
+                }
+            }
+        }
+        throw new SailConfigException(String.format("Target method %s with suitable arguments could not be found in class %s.", methodName, className));
+    }
+
+    /**
+     * selects the conversion of a binding into a parameter
+     *
+     * @param type the parameter type
+     * @return converter
+     */
+    private static Function<Value, Object> converterFor(Class<?> type) {
+        if (type.isAssignableFrom(String.class)) {
+            return Value::stringValue;
+        } else if (type == int.class) {
+            return value -> {
+                try {
+                    return Integer.parseInt(value.stringValue());
+                } catch (NumberFormatException nfe) {
+                    throw new SailException(String.format("Conversion from %s to %s failed.", value, type), nfe);
+                }
+            };
+        } else if (type == long.class) {
+            return value -> {
+                try {
+                    return Long.parseLong(value.stringValue());
+                } catch (NumberFormatException nfe) {
+                    throw new SailException(String.format("Conversion from %s to %s failed.", value, type), nfe);
+                }
+            };
+        } else if (type == double.class) {
+            return value -> {
+                try {
+                    return Double.parseDouble(value.stringValue());
+                } catch (NumberFormatException nfe) {
+                    throw new SailException(String.format("Conversion from %s to %s failed.", value, type), nfe);
+                }
+            };
+        } else {
+            return value -> Invocation.convertToObject(value, type);
+        }
+    }
+
+    /**
+     * access
+     *
+     * @return whether the target is a batch function which is called once per batch
+     */
+    public boolean isBatch() {
+        return batch;
+    }
+
+    /**
+     * access
+     *
+     * @return the argument key which feeds each parameter, null for batch functions
+     */
+    public String[] getArgumentKeys() {
+        return argumentKeys;
+    }
+
+    /**
+     * converts a binding into a parameter
+     *
+     * @param index the parameter index
+     * @param value the bound value
+     * @return parameter object
+     * @throws SailException if the value does not fit the parameter
+     */
+    public Object convert(int index, Value value) throws SailException {
+        return converters[index].apply(value);
+    }
+
+    /**
+     * creates a new instance of the class
+     *
+     * @return instance
+     * @throws SailException if the constructor fails
+     */
+    public Object newInstance() throws SailException {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new SailException(e);
+        }
+    }
+
+    /**
+     * invokes the method
+     *
+     * @param instance   instance of the class (ignored for static methods)
+     * @param parameters converted parameters
+     * @return result of the method
+     * @throws Exception whatever the method throws
+     */
+    public Object invoke(Object instance, Object[] parameters) throws Exception {
+        try {
+            return (Object) invoker.invokeExact(instance, parameters);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new SailException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "/" + method;
+    }
+}
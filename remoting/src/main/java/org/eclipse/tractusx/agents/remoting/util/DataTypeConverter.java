@@ -0,0 +1,130 @@
+// Copyright (c) 2022,2023 Contributors to the Eclipse Foundation
+//
+// See the NOTICE file(s) distributed with this work for additional
+// information regarding copyright ownership.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Apache License, Version 2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0.
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+// WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+// License for the specific language governing permissions and limitations
+// under the License.
+//
+// SPDX-License-Identifier: Apache-2.0
+package org.eclipse.tractusx.agents.remoting.util;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.sail.SailException;
+
+/**
+ * converts the string rendering of a result into a literal of a
+ * supported output data type. Resolved once per return value config.
+ */
+public enum DataTypeConverter {
+
+    OBJECT("https://json-schema.org/draft/2020-12/schema#Object"),
+    DATE_TIME("http://www.w3.org/2001/XMLSchema#dateTime"),
+    INT("http://www.w3.org/2001/XMLSchema#int") {
+        @Override
+        public Value convert(String rendering, ValueFactory vf) throws SailException {
+            try {
+                return vf.createLiteral(Integer.parseInt(rendering));
+            } catch (NumberFormatException nfwe) {
+                throw new SailException(String.format("Could not convert %s to integer.", rendering));
+            }
+        }
+    },
+    LONG("http://www.w3.org/2001/XMLSchema#long") {
+        @Override
+        public Value convert(String rendering, ValueFactory vf) throws SailException {
+            try {
+                return vf.createLiteral(Long.parseLong(rendering));
+            } catch (NumberFormatException nfwe) {
+                throw new SailException(String.format("Could not convert %s to long.", rendering));
+            }
+        }
+    },
+    DOUBLE("http://www.w3.org/2001/XMLSchema#double") {
+        @Override
+        public Value convert(String rendering, ValueFactory vf) throws SailException {
+            try {
+                return vf.createLiteral(Double.parseDouble(rendering));
+            } catch (NumberFormatException nfwe) {
+                throw new SailException(String.format("Could not convert %s to double.", rendering));
+            }
+        }
+    },
+    FLOAT("http://www.w3.org/2001/XMLSchema#float") {
+        @Override
+        public Value convert(String rendering, ValueFactory vf) throws SailException {
+            try {
+                return vf.createLiteral(Float.parseFloat(rendering));
+            } catch (NumberFormatException nfwe) {
+                throw new SailException(String.format("Could not convert %s to float.", rendering));
+            }
+        }
+    },
+    STRING("http://www.w3.org/2001/XMLSchema#string") {
+        @Override
+        public Value convert(String rendering, ValueFactory vf) {
+            return vf.createLiteral(rendering);
+        }
+    },
+    ELEMENT("http://www.w3.org/2001/XMLSchema#Element");
+
+    /**
+     * the data type
+     */
+    private final IRI dataType;
+
+    /**
+     * creates a converter
+     *
+     * @param dataType name of the data type
+     */
+    DataTypeConverter(String dataType) {
+        this.dataType = SimpleValueFactory.getInstance().createIRI(dataType);
+    }
+
+    /**
+     * access
+     *
+     * @return the data type of the literals
+     */
+    public IRI getDataType() {
+        return dataType;
+    }
+
+    /**
+     * converts a rendering into a literal, by default a literal with the data type
+     *
+     * @param rendering string representation of the result
+     * @param vf        factory for creating literals
+     * @return a literal
+     * @throws SailException if the rendering does not fit the data type
+     */
+    public Value convert(String rendering, ValueFactory vf) throws SailException {
+        return vf.createLiteral(rendering, dataType);
+    }
+
+    /**
+     * resolves the converter for a data type
+     *
+     * @param dataType name of the target literal type
+     * @return converter, null if the data type is not supported
+     */
+    public static DataTypeConverter forDataType(String dataType) {
+        for (DataTypeConverter converter : values()) {
+            if (converter.dataType.stringValue().equals(dataType)) {
+                return converter;
+            }
+        }
+        return null;
+    }
+}
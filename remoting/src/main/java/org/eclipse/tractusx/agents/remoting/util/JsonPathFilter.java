@@ -0,0 +1,173 @@
+// Copyright (c) 2022,2023 Contributors to the Eclipse Foundation
+//
+// See the NOTICE file(s) distributed with this work for additional
+// information regarding copyright ownership.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Apache License, Version 2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0.
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+// WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+// License for the specific language governing permissions and limitations
+// under the License.
+//
+// SPDX-License-Identifier: Apache-2.0
+package org.eclipse.tractusx.agents.remoting.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * a trie of (dot-separated) json paths which is used to
+ * stream a json document into a pruned tree. The pruned tree has the
+ * same shape as the original document along the configured paths
+ * (array positions are kept), but only the subtrees at the end of the
+ * paths are materialized, everything else is skipped by the parser.
+ * Arrays are transparent, i.e., their elements are matched against
+ * the same trie node unless the trie uses numeric segments to select
+ * single positions.
+ */
+public class JsonPathFilter {
+
+    /**
+     * the sub filters by field name or array index
+     */
+    protected final Map<String, JsonPathFilter> children = new HashMap<>();
+
+    /**
+     * whether the whole subtree at this position is needed
+     */
+    protected boolean capture = false;
+
+    /**
+     * whether array elements are selected by position
+     */
+    protected boolean indexed = false;
+
+    /**
+     * compiles the paths of a result configuration into a filter
+     *
+     * @param outputProperty   prefix of all paths, may be null
+     * @param resultIdProperty path of the correlation id under the prefix, may be null
+     * @param outputPaths      paths of the outputs under the prefix, null entries denote the whole result
+     * @return compiled filter
+     */
+    public static JsonPathFilter compile(String outputProperty, String resultIdProperty, Collection<String> outputPaths) {
+        JsonPathFilter root = new JsonPathFilter();
+        JsonPathFilter target = root.descend(outputProperty);
+        if (resultIdProperty != null) {
+            target.descend(resultIdProperty).capture = true;
+        }
+        for (String outputPath : outputPaths) {
+            target.descend(outputPath).capture = true;
+        }
+        return root;
+    }
+
+    /**
+     * access / create the filter at the end of the given path
+     *
+     * @param path dot-separated path, may be null
+     * @return filter at the end of the path
+     */
+    public JsonPathFilter descend(String path) {
+        JsonPathFilter current = this;
+        if (path != null) {
+            for (String segment : path.split("\\.")) {
+                if (segment.length() > 0) {
+                    if (Character.isDigit(segment.charAt(0))) {
+                        current.indexed = true;
+                    }
+                    current = current.children.computeIfAbsent(segment, name -> new JsonPathFilter());
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * access
+     *
+     * @return whether the whole subtree at this position is needed
+     */
+    public boolean isCapture() {
+        return capture;
+    }
+
+    /**
+     * reads a json document from the given stream and keeps only the parts
+     * needed by this filter
+     *
+     * @param mapper json factory
+     * @param in     stream to read from
+     * @return pruned json tree, a missing node if the stream is empty
+     * @throws IOException in case the stream cannot be read or parsed
+     */
+    public JsonNode read(ObjectMapper mapper, InputStream in) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(in)) {
+            if (parser.nextToken() == null) {
+                return MissingNode.getInstance();
+            }
+            return filter(mapper, parser);
+        }
+    }
+
+    /**
+     * filters the value at the current token of the parser
+     *
+     * @param mapper json factory
+     * @param parser positioned at the first token of the value
+     * @return pruned value, the parser is positioned at the last token of the value
+     * @throws IOException in case the stream cannot be read or parsed
+     */
+    protected JsonNode filter(ObjectMapper mapper, JsonParser parser) throws IOException {
+        if (capture) {
+            return mapper.readTree(parser);
+        }
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            ObjectNode object = mapper.createObjectNode();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonPathFilter child = children.get(field);
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    object.set(field, child.filter(mapper, parser));
+                }
+            }
+            return object;
+        } else if (token == JsonToken.START_ARRAY) {
+            ArrayNode array = mapper.createArrayNode();
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonPathFilter element = indexed ? children.get(String.valueOf(index)) : this;
+                if (element == null) {
+                    // keep the position of the following elements
+                    parser.skipChildren();
+                    array.addNull();
+                } else {
+                    array.add(element.filter(mapper, parser));
+                }
+                index++;
+            }
+            return array;
+        }
+        // scalars are already read anyway
+        return mapper.readTree(parser);
+    }
+}
@@ -0,0 +1,159 @@
+// Copyright (c) 2022,2023 Contributors to the Eclipse Foundation
+//
+// See the NOTICE file(s) distributed with this work for additional
+// information regarding copyright ownership.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Apache License, Version 2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0.
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+// WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+// License for the specific language governing permissions and limitations
+// under the License.
+//
+// SPDX-License-Identifier: Apache-2.0
+package org.eclipse.tractusx.agents.remoting.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.eclipse.rdf4j.sail.SailException;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * an immutable, pre-compiled (dot-separated) path into a json or xml result.
+ * The segments are split and array indices are parsed once when the
+ * configuration is validated, so that traversing does not allocate.
+ */
+public final class PathAccessor {
+
+    /**
+     * the empty path
+     */
+    public static final PathAccessor EMPTY = new PathAccessor("", new String[0], new int[0]);
+
+    /**
+     * the original path
+     */
+    private final String path;
+
+    /**
+     * the non-empty segments of the path
+     */
+    private final String[] segments;
+
+    /**
+     * the array index of each segment, -1 if the segment is not numeric
+     */
+    private final int[] indices;
+
+    /**
+     * creates a new accessor
+     *
+     * @param path     the original path
+     * @param segments non-empty segments
+     * @param indices  array index of each segment
+     */
+    private PathAccessor(String path, String[] segments, int[] indices) {
+        this.path = path;
+        this.segments = segments;
+        this.indices = indices;
+    }
+
+    /**
+     * compiles a path
+     *
+     * @param path dot-separated path, may be null
+     * @return compiled accessor
+     */
+    public static PathAccessor compile(String path) {
+        if (path == null) {
+            return EMPTY;
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("\\.")) {
+            if (segment.length() > 0) {
+                segments.add(segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            return EMPTY;
+        }
+        int[] indices = new int[segments.size()];
+        for (int count = 0; count < indices.length; count++) {
+            try {
+                indices[count] = Integer.parseInt(segments.get(count));
+            } catch (NumberFormatException nfe) {
+                indices[count] = -1;
+            }
+        }
+        return new PathAccessor(path, segments.toArray(new String[0]), indices);
+    }
+
+    /**
+     * access
+     *
+     * @return the original path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * access
+     *
+     * @return whether the path has no segments
+     */
+    public boolean isEmpty() {
+        return segments.length == 0;
+    }
+
+    /**
+     * traverses the path
+     *
+     * @param source json node or xml element
+     * @return object under the path, source if the path is empty
+     * @throws SailException if the path cannot be followed
+     */
+    public Object traverse(Object source) throws SailException {
+        for (int count = 0; count < segments.length; count++) {
+            String segment = segments[count];
+            if (source instanceof Element) {
+                Element element = (Element) source;
+                if (element.hasAttribute(segment)) {
+                    source = element.getAttribute(segment);
+                } else {
+                    NodeList nl = element.getElementsByTagName(segment);
+                    if (!(nl.getLength() > 0)) {
+                        throw new SailException(String.format("No such path %s under object %s", segment, source));
+                    }
+                    source = nl.item(0);
+                }
+            } else if (source instanceof JsonNode) {
+                JsonNode node = (JsonNode) source;
+                JsonNode next;
+                if (node.isArray()) {
+                    next = indices[count] >= 0 ? node.get(indices[count]) : null;
+                } else {
+                    next = node.get(segment);
+                }
+                if (next == null) {
+                    throw new SailException(String.format("No such path %s under object %s", segment, source));
+                }
+                source = next;
+            } else {
+                throw new SailException(String.format("Cannot access path %s under object %s", segment, source));
+            }
+        }
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "/" + path;
+    }
+}
@@ -0,0 +1,200 @@
+// Copyright (c) 2022,2023 Contributors to the Eclipse Foundation
+//
+// See the NOTICE file(s) distributed with this work for additional
+// information regarding copyright ownership.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Apache License, Version 2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0.
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+// WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+// License for the specific language governing permissions and limitations
+// under the License.
+//
+// SPDX-License-Identifier: Apache-2.0
+package org.eclipse.tractusx.agents.remoting.util;
+
+import org.eclipse.rdf4j.model.Value;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * a bounded cache of invocation results. It maps the resolved argument
+ * tuple of an invocation to the output values (by output predicate).
+ * Entries expire after a time to live and the least recently used
+ * entries are evicted when the number of entries or their estimated memory
+ * exceeds the configured limits.
+ */
+public class ResultCache {
+
+    /**
+     * a cached result
+     */
+    protected static class Entry {
+        protected final Map<String, Value> outputs;
+        protected final long expires;
+        protected final long bytes;
+
+        protected Entry(Map<String, Value> outputs, long expires, long bytes) {
+            this.outputs = outputs;
+            this.expires = expires;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * entries in access order
+     */
+    protected final LinkedHashMap<BatchKey<Value>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    protected final long ttl;
+    protected final int maxEntries;
+    protected final long maxBytes;
+    protected long bytes = 0;
+
+    protected final AtomicLong hits = new AtomicLong();
+    protected final AtomicLong misses = new AtomicLong();
+    protected final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * creates a new cache
+     *
+     * @param ttl        time to live of an entry in milliseconds
+     * @param maxEntries maximal number of entries
+     * @param maxBytes   maximal estimated memory of the entries, -1 for no limit
+     */
+    public ResultCache(long ttl, int maxEntries, long maxBytes) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "/cache";
+    }
+
+    /**
+     * looks up the outputs of an argument tuple
+     *
+     * @param key     the resolved argument tuple
+     * @param outputs the output predicates which need to be present
+     * @return the cached outputs, null if not cached, expired or incomplete
+     */
+    public synchronized Map<String, Value> get(BatchKey<Value> key, Collection<String> outputs) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expires < System.currentTimeMillis()) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null || !entry.outputs.keySet().containsAll(outputs)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.outputs;
+    }
+
+    /**
+     * stores the outputs of an argument tuple
+     *
+     * @param key     the resolved argument tuple
+     * @param outputs the output values by output predicate
+     */
+    public synchronized void put(BatchKey<Value> key, Map<String, Value> outputs) {
+        long size = estimate(key, outputs);
+        if (maxBytes >= 0 && size > maxBytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(outputs, System.currentTimeMillis() + ttl, size));
+        bytes += size;
+        Iterator<Map.Entry<BatchKey<Value>, Entry>> eldest = entries.entrySet().iterator();
+        while (eldest.hasNext() && (entries.size() > maxEntries || (maxBytes >= 0 && bytes > maxBytes))) {
+            bytes -= eldest.next().getValue().bytes;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * removes an entry
+     *
+     * @param key the resolved argument tuple
+     */
+    protected void remove(BatchKey<Value> key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            bytes -= entry.bytes;
+        }
+    }
+
+    /**
+     * estimates the memory of an entry by the lengths of its string representations
+     *
+     * @param key     the resolved argument tuple
+     * @param outputs the output values
+     * @return estimated bytes
+     */
+    protected static long estimate(BatchKey<Value> key, Map<String, Value> outputs) {
+        long size = 0;
+        for (Value component : key.getComponents()) {
+            size += component == null ? 0 : component.stringValue().length();
+        }
+        for (Map.Entry<String, Value> output : outputs.entrySet()) {
+            size += output.getKey().length() + output.getValue().stringValue().length();
+        }
+        // two bytes per char
+        return size * 2;
+    }
+
+    /**
+     * access
+     *
+     * @return number of lookups which were answered from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * access
+     *
+     * @return number of lookups which were not answered from the cache
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * access
+     *
+     * @return number of entries which were evicted to respect the limits
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * access
+     *
+     * @return current number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * removes all entries
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+}
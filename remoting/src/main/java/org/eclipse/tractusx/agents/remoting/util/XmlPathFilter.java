@@ -0,0 +1,339 @@
+// Copyright (c) 2022,2023 Contributors to the Eclipse Foundation
+//
+// See the NOTICE file(s) distributed with this work for additional
+// information regarding copyright ownership.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Apache License, Version 2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0.
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+// WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+// License for the specific language governing permissions and limitations
+// under the License.
+//
+// SPDX-License-Identifier: Apache-2.0
+package org.eclipse.tractusx.agents.remoting.util;
+
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * streams an xml document into a pruned dom. Because the path semantics
+ * of xml results are based on (descendant) element and attribute names, the filter
+ * keeps all elements and attributes whose names are referenced by the paths (together
+ * with their ancestors) and captures the complete subtrees of the elements at the
+ * end of the paths. All other content is skipped without creating nodes.
+ */
+public class XmlPathFilter {
+
+    /**
+     * the shared and secured stax factory
+     */
+    protected static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    /**
+     * the shared dom implementation
+     */
+    protected static final DOMImplementation DOM_IMPLEMENTATION;
+
+    static {
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+        try {
+            DOM_IMPLEMENTATION = DocumentBuilderFactory.newInstance().newDocumentBuilder().getDOMImplementation();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Could not obtain a dom implementation.", e);
+        }
+    }
+
+    /**
+     * a filter which keeps the complete document
+     */
+    public static final XmlPathFilter CAPTURE_ALL = new XmlPathFilter(true);
+
+    /**
+     * the referenced element and attribute names
+     */
+    protected final Set<String> names = new HashSet<>();
+
+    /**
+     * the element names whose complete subtree is needed
+     */
+    protected final Set<String> captures = new HashSet<>();
+
+    /**
+     * whether the complete document is needed
+     */
+    protected final boolean captureAll;
+
+    /**
+     * creates a new filter
+     *
+     * @param captureAll whether the complete document is needed
+     */
+    protected XmlPathFilter(boolean captureAll) {
+        this.captureAll = captureAll;
+    }
+
+    /**
+     * compiles the paths of a result configuration into a filter
+     *
+     * @param outputProperty   prefix of all paths, may be null
+     * @param resultIdProperty path of the correlation id under the prefix, may be null
+     * @param outputPaths      paths of the outputs under the prefix, null entries denote the whole result
+     * @return compiled filter
+     */
+    public static XmlPathFilter compile(String outputProperty, String resultIdProperty, Collection<String> outputPaths) {
+        XmlPathFilter filter = new XmlPathFilter(false);
+        String target = filter.reference(outputProperty, false);
+        filter.reference(resultIdProperty, true);
+        for (String outputPath : outputPaths) {
+            if (filter.reference(outputPath, true) == null) {
+                // the output is the whole result
+                if (target == null) {
+                    return CAPTURE_ALL;
+                }
+                filter.captures.add(target);
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * compiles the paths of a result configuration and the path of its callback id into a filter for callbacks
+     *
+     * @param outputProperty   prefix of all paths, may be null
+     * @param resultIdProperty path of the correlation id under the prefix, may be null
+     * @param outputPaths      paths of the outputs under the prefix, null entries denote the whole result
+     * @param callbackProperty path of the call id in the callback, may be null
+     * @return compiled filter
+     */
+    public static XmlPathFilter compile(String outputProperty, String resultIdProperty, Collection<String> outputPaths, String callbackProperty) {
+        XmlPathFilter filter = compile(outputProperty, resultIdProperty, outputPaths);
+        if (filter != CAPTURE_ALL) {
+            filter.reference(callbackProperty, true);
+        }
+        return filter;
+    }
+
+    /**
+     * registers the names of a dot-separated path
+     *
+     * @param path    the path, may be null
+     * @param capture whether the subtree at the end of the path is needed
+     * @return the last name of the path, null if the path is empty
+     */
+    protected String reference(String path, boolean capture) {
+        String last = null;
+        if (path != null) {
+            for (String segment : path.split("\\.")) {
+                if (segment.length() > 0) {
+                    names.add(segment);
+                    last = segment;
+                }
+            }
+        }
+        if (capture && last != null) {
+            captures.add(last);
+        }
+        return last;
+    }
+
+    /**
+     * reads an xml document from the given stream and keeps only the parts
+     * needed by this filter
+     *
+     * @param in stream to read from
+     * @return (pruned) document element
+     * @throws IOException in case the stream cannot be read or parsed
+     */
+    public Element read(InputStream in) throws IOException {
+        try {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                return read(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(String.format("Could not parse xml result: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * the pruning loop
+     *
+     * @param reader stax reader before the document element
+     * @return (pruned) document element
+     * @throws XMLStreamException in case the stream cannot be parsed
+     */
+    protected Element read(XMLStreamReader reader) throws XMLStreamException {
+        Document document = DOM_IMPLEMENTATION.createDocument(null, null, null);
+        Frame current = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = qualifiedName(reader.getPrefix(), reader.getLocalName());
+                if (current == null) {
+                    boolean capture = captureAll || captures.contains(name);
+                    current = new Frame(null, name);
+                    current.element = createElement(document, reader, name, capture);
+                    document.appendChild(current.element);
+                    if (capture) {
+                        copy(document, reader, current.element);
+                        return current.element;
+                    }
+                } else if (captures.contains(name)) {
+                    Element captured = createElement(document, reader, name, true);
+                    current.materialize(document).appendChild(captured);
+                    copy(document, reader, captured);
+                } else {
+                    current = new Frame(current, name);
+                    if (names.contains(name) || hasReferencedAttribute(reader)) {
+                        current.element = createElement(document, reader, name, false);
+                        current.parent.materialize(document).appendChild(current.element);
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (current.parent == null) {
+                    return current.element;
+                }
+                current = current.parent;
+            }
+        }
+        throw new XMLStreamException("Xml result did not contain a document element.");
+    }
+
+    /**
+     * checks whether the current element carries a referenced attribute
+     *
+     * @param reader stax reader at a start element
+     * @return whether one of the attributes is referenced
+     */
+    protected boolean hasReferencedAttribute(XMLStreamReader reader) {
+        for (int count = 0; count < reader.getAttributeCount(); count++) {
+            if (names.contains(qualifiedName(reader.getAttributePrefix(count), reader.getAttributeLocalName(count)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * copies the complete subtree of the current element
+     *
+     * @param document the target document
+     * @param reader   stax reader at the start element
+     * @param target   the already created element
+     * @throws XMLStreamException in case the stream cannot be parsed
+     */
+    protected void copy(Document document, XMLStreamReader reader, Element target) throws XMLStreamException {
+        Node current = target;
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    Element child = createElement(document, reader, qualifiedName(reader.getPrefix(), reader.getLocalName()), true);
+                    current.appendChild(child);
+                    current = child;
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    current = current.getParentNode();
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    current.appendChild(document.createTextNode(reader.getText()));
+                    break;
+                case XMLStreamConstants.COMMENT:
+                    current.appendChild(document.createComment(reader.getText()));
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * creates an element from the current start element
+     *
+     * @param document      the target document
+     * @param reader        stax reader at a start element
+     * @param name          qualified name of the element
+     * @param allAttributes whether all attributes or only the referenced ones are kept
+     * @return a new element
+     */
+    protected Element createElement(Document document, XMLStreamReader reader, String name, boolean allAttributes) {
+        Element element = document.createElement(name);
+        for (int count = 0; count < reader.getNamespaceCount(); count++) {
+            String prefix = reader.getNamespacePrefix(count);
+            element.setAttribute(prefix == null || prefix.isEmpty() ? "xmlns" : "xmlns:" + prefix, reader.getNamespaceURI(count));
+        }
+        for (int count = 0; count < reader.getAttributeCount(); count++) {
+            String attribute = qualifiedName(reader.getAttributePrefix(count), reader.getAttributeLocalName(count));
+            if (allAttributes || names.contains(attribute)) {
+                element.setAttribute(attribute, reader.getAttributeValue(count));
+            }
+        }
+        return element;
+    }
+
+    /**
+     * renders a qualified name like a non-namespace-aware dom parser would do
+     *
+     * @param prefix    namespace prefix, may be null or empty
+     * @param localName local name
+     * @return qualified name
+     */
+    protected static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    /**
+     * an open element whose dom node is only created
+     * once it or one of its descendants needs to be kept
+     */
+    protected static class Frame {
+        protected final Frame parent;
+        protected final String name;
+        protected Element element;
+
+        protected Frame(Frame parent, String name) {
+            this.parent = parent;
+            this.name = name;
+        }
+
+        /**
+         * makes sure that the element and its ancestors are part of the pruned document
+         *
+         * @param document the target document
+         * @return the element
+         */
+        protected Element materialize(Document document) {
+            if (element == null) {
+                element = document.createElement(name);
+                parent.materialize(document).appendChild(element);
+            }
+            return element;
+        }
+    }
+}
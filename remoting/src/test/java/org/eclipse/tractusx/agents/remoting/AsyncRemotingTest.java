@@ -17,29 +17,58 @@
 package org.eclipse.tractusx.agents.remoting;
 
 import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
 import org.eclipse.rdf4j.common.iteration.Iterations;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.util.Models;
 import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.sail.SailRepository;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.tractusx.agents.remoting.callback.CallbackController;
+import org.eclipse.tractusx.agents.remoting.callback.CallbackToken;
+import org.eclipse.tractusx.agents.remoting.config.ArgumentConfig;
 import org.eclipse.tractusx.agents.remoting.config.RemotingSailConfig;
+import org.eclipse.tractusx.agents.remoting.config.ResultConfig;
+import org.eclipse.tractusx.agents.remoting.config.ReturnValueConfig;
+import org.eclipse.tractusx.agents.remoting.config.ServiceConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.w3c.dom.Element;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -108,4 +137,402 @@ public class AsyncRemotingTest {
         }
     }
 
+    /**
+     * finds a port which is currently not in use
+     *
+     * @return a free local port
+     */
+    protected static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * starts a peer agent in a separate process
+     *
+     * @param port  the port of the peer
+     * @param node  the node id of the peer
+     * @param peers the peers of the peer as a comma-separated list of id=callbackAddress
+     * @return the running peer process, ready to receive callbacks
+     */
+    protected static Process startPeer(int port, String node, String peers) throws Exception {
+        Process peer = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                "-D" + CallbackController.NODE_PROPERTY + "=" + node,
+                "-D" + CallbackController.PEERS_PROPERTY + "=" + peers,
+                TestConfiguration.class.getName(),
+                "--server.port=" + port)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        long deadline = System.currentTimeMillis() + 60000;
+        try (final CloseableHttpClient httpclient = HttpClients.createDefault()) {
+            while (true) {
+                try {
+                    HttpGet probe = new HttpGet("http://localhost:" + port + "/callback");
+                    EntityUtils.consumeQuietly(httpclient.execute(probe).getEntity());
+                    return peer;
+                } catch (IOException e) {
+                    if (!peer.isAlive() || System.currentTimeMillis() > deadline) {
+                        peer.destroyForcibly();
+                        throw new IllegalStateException(String.format("Peer on port %d did not start.", port), e);
+                    }
+                    Thread.sleep(250);
+                }
+            }
+        }
+    }
+
+    /**
+     * posts a callback
+     *
+     * @param address   the callback address
+     * @param callId    the id of the answered call
+     * @param forwarded whether the callback is marked as forwarded already
+     * @return the status of the response
+     */
+    protected static int postCallback(String address, String callId, boolean forwarded) throws IOException {
+        final HttpPost httppost = new HttpPost(address);
+        httppost.addHeader("Content-Type", "application/json");
+        if (forwarded) {
+            httppost.addHeader(CallbackController.FORWARDED_HEADER, "c");
+        }
+        httppost.setEntity(new StringEntity(String.format("{\"header\":{\"referencedNotificationID\":\"%s\"}}", callId)));
+        try (final CloseableHttpClient httpclient = HttpClients.createDefault()) {
+            HttpResponse response = httpclient.execute(httppost);
+            EntityUtils.consumeQuietly(response.getEntity());
+            return response.getStatusLine().getStatusCode();
+        }
+    }
+
+    /**
+     * tests forwarding callbacks between two agents running in different processes
+     */
+    @Test
+    public void testForwarding() throws Exception {
+        // we are node a, node b runs in its own process on another port
+        String local = "http://localhost:" + localServerPort + "/callback";
+        int port = freePort();
+        String remote = "http://localhost:" + port + "/callback";
+        CallbackController.configure("a", "b=" + remote);
+        Process peer = startPeer(port, "b", "a=" + local);
+        try {
+            assertEquals(local + "?node=a", CallbackController.route(local), "Callback address is routed");
+
+            CallbackToken directed = CallbackController.register("header.referencedNotificationID", "forwarded-directed");
+            assertEquals(200, postCallback(remote + "?node=a", "forwarded-directed", false), "Callback for another node is forwarded");
+            assertNotNull(directed.getResult().get(5, TimeUnit.SECONDS), "Forwarded callback completes the call");
+
+            CallbackToken fannedOut = CallbackController.register("header.referencedNotificationID", "forwarded-fanned");
+            assertEquals(200, postCallback(remote, "forwarded-fanned", false), "Callback for an unknown node is accepted");
+            assertNotNull(fannedOut.getResult().get(5, TimeUnit.SECONDS), "Callback for an unknown node is fanned out to the peers");
+
+            CallbackToken guarded = CallbackController.register("header.referencedNotificationID", "forwarded-guarded");
+            try {
+                assertEquals(200, postCallback(remote + "?node=a", "forwarded-guarded", true), "Forwarded callback is accepted");
+                assertEquals(200, postCallback(remote, "forwarded-guarded", true), "Forwarded callback is accepted");
+                Thread.sleep(500);
+                assertFalse(guarded.getResult().isDone(), "Forwarded callbacks are not forwarded again");
+            } finally {
+                CallbackController.cancel(guarded);
+            }
+        } finally {
+            peer.destroy();
+            peer.waitFor(10, TimeUnit.SECONDS);
+            CallbackController.configure(null, null);
+        }
+    }
+
+    /**
+     * tests that a callback completes exactly its registered call and that the registry is cleaned up
+     */
+    @Test
+    public void testRegistry() throws Exception {
+        String local = "http://localhost:" + localServerPort + "/callback";
+        CallbackToken first = CallbackController.register("header.referencedNotificationID", "registry-first");
+        CallbackToken second = CallbackController.register("header.referencedNotificationID", "registry-second");
+        assertTrue(CallbackController.PENDING.containsKey("header.referencedNotificationID"), "Response path is registered");
+        assertEquals(200, postCallback(local, "registry-first", false), "Callback is accepted");
+        assertNotNull(first.getResult().get(5, TimeUnit.SECONDS), "Callback completes its call");
+        assertFalse(second.getResult().isDone(), "Callback does not complete other calls");
+        assertTrue(CallbackController.PENDING.containsKey("header.referencedNotificationID"), "Response path with pending calls is kept");
+        CallbackController.cancel(second);
+        assertFalse(CallbackController.PENDING.containsKey("header.referencedNotificationID"), "Response path without pending calls is removed");
+    }
+
+    /**
+     * tests that an xml callback is pruned by the filter of the service which waits for it
+     */
+    @Test
+    public void testXmlCallback() throws Exception {
+        Model graph = Rio.parse(RemotingSailTest.class.getResourceAsStream("/config.ttl"), RemotingSailTest.REPO_NAMESPACE,
+                RDFFormat.TURTLE);
+        RemotingSailConfig rsc = new RemotingSailConfig(RemotingSailFactory.SAIL_TYPE);
+        rsc.parse(graph, Models.subjectBNode(graph.filter(null, rsc.getValueFactory().createIRI("http://www.openrdf.org/config/sail#", "sailType"),
+                rsc.getValueFactory().createLiteral("org.eclipse.tractusx.agents:Remoting"))).get());
+        rsc.validate();
+        ResultConfig rul = rsc.getService("https://w3id.org/catenax/ontology/rul#RemainingUsefulLife").getResult();
+        CallbackToken token = CallbackController.register(rul.getCallbackProperty(), "xml-callback", rul.getCallbackXmlFilter(), null, -1);
+        final HttpPost httppost = new HttpPost("http://localhost:" + localServerPort + "/callback");
+        httppost.addHeader("Content-Type", "application/xml");
+        httppost.setEntity(new StringEntity("<message><header referencedNotificationID=\"xml-callback\">" +
+                "<senderBpn>BPNL0000000000DQ</senderBpn></header><content><remainingTime>42</remainingTime></content></message>"));
+        try (final CloseableHttpClient httpclient = HttpClients.createDefault()) {
+            HttpResponse response = httpclient.execute(httppost);
+            EntityUtils.consumeQuietly(response.getEntity());
+            assertEquals(200, response.getStatusLine().getStatusCode(), "Callback is accepted");
+        }
+        Element callback = (Element) token.getResult().get(5, TimeUnit.SECONDS);
+        assertEquals(1, callback.getElementsByTagName("remainingTime").getLength(), "Outputs are kept");
+        assertEquals(0, callback.getElementsByTagName("senderBpn").getLength(), "Unreferenced elements are skipped");
+    }
+
+    /**
+     * tests the admission of pending calls
+     */
+    @Test
+    public void testAdmission() throws Exception {
+        AtomicInteger budget = new AtomicInteger(0);
+        int occupancy = CallbackController.getOccupancy();
+        CallbackToken first = CallbackController.register("header.referencedNotificationID", "admitted", budget, 1);
+        assertNotNull(first, "First call is admitted");
+        assertEquals(occupancy + 1, CallbackController.getOccupancy(), "Pending call is counted");
+        assertNull(CallbackController.register("header.referencedNotificationID", "rejected", budget, 1), "Second call is rejected");
+        CallbackController.cancel(first);
+        assertEquals(0, budget.get(), "Cancelled call is released");
+        assertEquals(occupancy, CallbackController.getOccupancy(), "Cancelled call is evicted");
+        CallbackToken second = CallbackController.register("header.referencedNotificationID", "admitted", budget, 1);
+        assertNotNull(second, "Call is admitted after release");
+        CallbackController.cancel(second);
+    }
+
+    /**
+     * tests that a query fails when the pending calls of its service exceed the budget
+     */
+    @Test
+    public void testRejection() throws Exception {
+        Model graph = Rio.parse(RemotingSailTest.class.getResourceAsStream("/config.ttl"), RemotingSailTest.REPO_NAMESPACE,
+                RDFFormat.TURTLE);
+        RemotingSailConfig rsc=new RemotingSailConfig(RemotingSailFactory.SAIL_TYPE);
+        rsc.parse(graph, Models.subjectBNode(graph.filter(null,rsc.getValueFactory().createIRI("http://www.openrdf.org/config/sail#","sailType"),
+                rsc.getValueFactory().createLiteral("org.eclipse.tractusx.agents:Remoting"))).get());
+        rsc.validate();
+        RemotingSail sail = new RemotingSail(rsc);
+        Repository rep = new SailRepository(sail);
+        ServiceConfig rul = rsc.getService("https://w3id.org/catenax/ontology/rul#RemainingUsefulLife");
+        List<CallbackToken> occupied = new ArrayList<>();
+        try {
+            // occupy the complete budget of the service with calls which are never answered
+            for (int count = 0; count < rul.getMaxPending(); count++) {
+                occupied.add(CallbackController.register("header.referencedNotificationID", "occupied-" + count, sail.getPending(rul), rul.getMaxPending()));
+            }
+            assertEquals(rul.getMaxPending(), sail.getPending(rul).get(), "Budget is exhausted");
+            try (RepositoryConnection conn = rep.getConnection()) {
+                TupleQuery query = (TupleQuery) conn.prepareQuery(QueryLanguage.SPARQL,
+                        "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> " +
+                                "PREFIX rul: <https://w3id.org/catenax/ontology/rul#> " +
+                                "SELECT ?invocation ?component ?result " +
+                                "WHERE { " +
+                                " VALUES(?component ?type) { (<urn:two> \"Clutch\"^^xsd:string)}" +
+                                " ?invocation a rul:RemainingUsefulLife; " +
+                                "             rul:component ?component; " +
+                                "             rul:observationType ?type; " +
+                                "             rul:content ?result. " +
+                                "}");
+                QueryEvaluationException rejection = assertThrows(QueryEvaluationException.class, () -> {
+                    try (TupleQueryResult result = query.evaluate()) {
+                        Iterations.asList(result);
+                    }
+                }, "Query over budget is rejected");
+                assertTrue(String.valueOf(rejection.getMessage()).contains("Too many pending calls"), "Rejection names the reason");
+            }
+        } finally {
+            occupied.forEach(CallbackController::cancel);
+            rep.shutDown();
+        }
+        assertEquals(0, sail.getPending(rul).get(), "Budget is released");
+    }
+
+    /**
+     * a coalescing function which echoes its name argument after a while
+     *
+     * @return validated config
+     */
+    protected RemotingSailConfig slowConfig() {
+        RemotingSailConfig rsc = new RemotingSailConfig(RemotingSailFactory.SAIL_TYPE);
+        ServiceConfig ic = new ServiceConfig();
+        rsc.putService("https://w3id.org/catenax/ontology/prognosis#Prognosis", ic);
+        ic.setTargetUri("http://localhost:" + localServerPort + "/slow");
+        ic.setCoalesce(true);
+        ArgumentConfig ac = new ArgumentConfig();
+        ac.setArgumentName("name");
+        ic.getArguments().put("https://w3id.org/catenax/ontology/prognosis#name", ac);
+        ResultConfig rc = new ResultConfig();
+        ic.setResult(rc);
+        ic.setResultName("https://w3id.org/catenax/ontology/prognosis#Result");
+        ReturnValueConfig rvc = new ReturnValueConfig();
+        rvc.setPath("echo");
+        rc.getOutputs().put("https://w3id.org/catenax/ontology/prognosis#prediction", rvc);
+        rsc.validate();
+        return rsc;
+    }
+
+    /**
+     * queries the slow function
+     *
+     * @param rep       repository with the slow function
+     * @param values    values clause binding the names
+     * @param modifiers solution modifiers of the query
+     * @return result rows
+     */
+    protected static List<BindingSet> slowQuery(Repository rep, String values, String... modifiers) {
+        try (RepositoryConnection conn = rep.getConnection()) {
+            TupleQuery query = (TupleQuery) conn.prepareQuery(QueryLanguage.SPARQL,
+                    "PREFIX prognosis: <https://w3id.org/catenax/ontology/prognosis#> " +
+                            "SELECT ?name ?prediction " +
+                            "WHERE { " + values +
+                            " ?invocation a prognosis:Prognosis; " +
+                            "            prognosis:name ?name; " +
+                            "            prognosis:prediction ?prediction. " +
+                            "} " + String.join(" ", modifiers));
+            try (TupleQueryResult result = query.evaluate()) {
+                return Iterations.asList(result);
+            }
+        }
+    }
+
+    /**
+     * tests that identical calls of concurrent queries are coalesced into a single backend call
+     */
+    @Test
+    public void testCoalescing() throws Exception {
+        Repository rep = new SailRepository(new RemotingSail(slowConfig()));
+        SlowTestController.CALLS.set(0);
+        Callable<List<BindingSet>> task = () -> slowQuery(rep, "VALUES (?name) { (\"Schorsch\") }");
+        ExecutorService queries = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<List<BindingSet>>> results = queries.invokeAll(List.of(task, task));
+            for (Future<List<BindingSet>> result : results) {
+                List<BindingSet> bindings = result.get(10, TimeUnit.SECONDS);
+                assertEquals(1, bindings.size(), "Correct number of bindings");
+                assertEquals("Schorsch", bindings.get(0).getValue("prediction").stringValue(), "Correct output");
+            }
+        } finally {
+            queries.shutdown();
+            rep.shutDown();
+        }
+        assertEquals(1, SlowTestController.CALLS.get(), "Identical concurrent calls reach the backend once");
+    }
+
+    /**
+     * tests that the batches of a single invocation are sent concurrently up to the parallelism
+     */
+    @Test
+    public void testParallelBatches() throws Exception {
+        RemotingSailConfig rsc = slowConfig();
+        rsc.getService("https://w3id.org/catenax/ontology/prognosis#Prognosis").setParallelism(3);
+        rsc.validate();
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+        SlowTestController.CALLS.set(0);
+        try {
+            long start = System.currentTimeMillis();
+            List<BindingSet> bindings = slowQuery(rep, "VALUES (?name) { (\"first\") (\"second\") (\"third\") }");
+            long duration = System.currentTimeMillis() - start;
+            assertEquals(3, bindings.size(), "Correct number of bindings");
+            for (BindingSet binding : bindings) {
+                assertEquals(binding.getValue("name").stringValue(), binding.getValue("prediction").stringValue(), "Correct output");
+            }
+            assertTrue(duration < SlowTestController.DELAY * 2, "Batches overlap instead of being sent one after the other");
+        } finally {
+            rep.shutDown();
+        }
+        assertEquals(3, SlowTestController.CALLS.get(), "Each batch is sent once");
+    }
+
+    /**
+     * tests that the results of a batch are correlated by their id regardless of their order
+     */
+    @Test
+    public void testCorrelatedBatch() throws Exception {
+        Model graph = Rio.parse(RemotingSailTest.class.getResourceAsStream("/batch.ttl"), RemotingSailTest.REPO_NAMESPACE,
+                RDFFormat.TURTLE);
+        RemotingSailConfig rsc = new RemotingSailConfig(RemotingSailFactory.SAIL_TYPE);
+        rsc.parse(graph, Models.subjectBNode(graph.filter(null, rsc.getValueFactory().createIRI("http://www.openrdf.org/config/sail#", "sailType"),
+                rsc.getValueFactory().createLiteral("org.eclipse.tractusx.agents:Remoting"))).get());
+        rsc.validate();
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+        BatchTestController.CALLS.set(0);
+        try {
+            List<BindingSet> bindings = slowQuery(rep, "VALUES (?name) { (\"first\") (\"second\") (\"third\") }");
+            assertEquals(3, bindings.size(), "Correct number of bindings");
+            for (BindingSet binding : bindings) {
+                assertEquals(binding.getValue("name").stringValue().toUpperCase(), binding.getValue("prediction").stringValue(),
+                        "Binding gets the first result with its id");
+            }
+        } finally {
+            rep.shutDown();
+        }
+        assertEquals(1, BatchTestController.CALLS.get(), "Bindings are sent in a single batch");
+    }
+
+    /**
+     * tests that the lanes of a query pause while its stream is full and resume when rows are consumed
+     */
+    @Test
+    public void testPausedLanes() throws Exception {
+        RemotingSail sail = new RemotingSail(slowConfig());
+        Repository rep = new SailRepository(sail);
+        rep.init();
+        SlowTestController.CALLS.set(0);
+        TupleExpr expr = QueryParserUtil.parseTupleQuery(QueryLanguage.SPARQL,
+                "PREFIX prognosis: <https://w3id.org/catenax/ontology/prognosis#> " +
+                        "SELECT ?name ?prediction " +
+                        "WHERE { VALUES (?name) { (\"first\") (\"second\") (\"third\") } " +
+                        " ?invocation a prognosis:Prognosis; " +
+                        "            prognosis:name ?name; " +
+                        "            prognosis:prediction ?prediction. " +
+                        "}", null).getTupleExpr();
+        try (RemotingSailConnection conn = (RemotingSailConnection) sail.getConnection()) {
+            BindingStream stream = new BindingStream(1);
+            QueryExecutor visitor = new QueryExecutor(conn, stream);
+            expr.visit(visitor);
+            CompletableFuture<Void> execution = visitor.getExecution();
+            Thread.sleep(SlowTestController.DELAY * 2);
+            assertEquals(1, SlowTestController.CALLS.get(), "Lane pauses while the stream is full");
+            assertFalse(execution.isDone(), "Execution waits for the consumer");
+            execution.whenComplete((result, failure) -> stream.finish(failure));
+            assertEquals(3, Iterations.asList(stream).size(), "All rows arrive once consumed");
+        } finally {
+            rep.shutDown();
+        }
+        assertEquals(3, SlowTestController.CALLS.get(), "Lane resumes when rows are consumed");
+    }
+
+    /**
+     * tests that a query which stops after its limit does not abort the calls which other queries follow
+     */
+    @Test
+    public void testDetachedFlight() throws Exception {
+        Repository rep = new SailRepository(new RemotingSail(slowConfig()));
+        SlowTestController.CALLS.set(0);
+        ExecutorService queries = Executors.newFixedThreadPool(2);
+        try {
+            // the leader sends one name after the other and stops after the first row
+            Future<List<BindingSet>> leader = queries.submit(() ->
+                    slowQuery(rep, "VALUES (?name) { (\"first\") (\"second\") (\"third\") }", "LIMIT 1"));
+            Thread.sleep(SlowTestController.DELAY / 3);
+            // the follower joins the call of the second name which the leader has not sent yet
+            Future<List<BindingSet>> follower = queries.submit(() -> slowQuery(rep, "VALUES (?name) { (\"second\") }"));
+            assertEquals(1, leader.get(10, TimeUnit.SECONDS).size(), "Leader stops after its limit");
+            List<BindingSet> bindings = follower.get(10, TimeUnit.SECONDS);
+            assertEquals(1, bindings.size(), "Follower gets its row");
+            assertEquals("second", bindings.get(0).getValue("prediction").stringValue(), "Follower gets the right output");
+        } finally {
+            queries.shutdown();
+            rep.shutDown();
+        }
+        assertEquals(2, SlowTestController.CALLS.get(), "Followed call is sent once, the call nobody waits for is not sent");
+    }
+
 }
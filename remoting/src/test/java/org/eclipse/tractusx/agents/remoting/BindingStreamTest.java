@@ -0,0 +1,70 @@
+package org.eclipse.tractusx.agents.remoting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class BindingStreamTest {
+
+    protected static BindingSet row(int index) {
+        return new ListBindingSet(List.of("index"), SimpleValueFactory.getInstance().createLiteral(index));
+    }
+
+    @Test
+    public void testBackpressure() {
+        BindingStream stream = new BindingStream(2);
+        stream.offer(row(0));
+        assertTrue(stream.whenWritable().isDone(), "Stream with room is writable");
+        stream.offer(row(1));
+        CompletableFuture<Void> writable = stream.whenWritable();
+        assertFalse(writable.isDone(), "Full stream is not writable");
+        stream.offer(row(2));
+        assertEquals(3, stream.rows.size(), "Offering never waits");
+        stream.finish(null);
+        for (int index = 0; index < 3; index++) {
+            assertTrue(stream.hasNext(), "Row is available");
+            assertEquals(String.valueOf(index), stream.next().getValue("index").stringValue(), "Rows keep their order");
+        }
+        assertTrue(writable.isDone(), "Ended stream is writable");
+        assertFalse(stream.hasNext(), "Stream ends");
+    }
+
+    @Test
+    public void testRoom() {
+        BindingStream stream = new BindingStream(2);
+        stream.offer(row(0));
+        stream.offer(row(1));
+        CompletableFuture<Void> writable = stream.whenWritable();
+        assertFalse(writable.isDone(), "Full stream is not writable");
+        assertTrue(stream.hasNext(), "Row is available");
+        stream.next();
+        assertTrue(writable.isDone(), "Consuming a row makes room");
+    }
+
+    @Test
+    public void testClose() {
+        BindingStream stream = new BindingStream(1);
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        stream.onClose(() -> stopped.set(true));
+        stream.offer(row(0));
+        CompletableFuture<Void> writable = stream.whenWritable();
+        assertTrue(stream.hasNext(), "First row is available");
+        stream.next();
+        stream.offer(row(1));
+        stream.close();
+        assertTrue(stopped.get(), "Closing runs the close hook");
+        assertTrue(writable.isDone(), "Closed stream is writable");
+        assertFalse(stream.hasNext(), "Closed stream has no rows");
+        stream.offer(row(2));
+        assertTrue(stream.rows.isEmpty(), "Closed stream drops further rows");
+    }
+}
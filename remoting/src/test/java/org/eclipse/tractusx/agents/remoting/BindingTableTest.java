@@ -0,0 +1,101 @@
+package org.eclipse.tractusx.agents.remoting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MutableBindingSet;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BindingTableTest {
+
+    @Test
+    public void testColumns() {
+        BindingTable table = new BindingTable();
+        int input = table.slot("input");
+        assertEquals(input, table.slot("input"), "Slots are stable");
+        assertEquals(-1, table.findSlot("output"), "Unknown variable has no slot");
+
+        // grow beyond the initial capacity
+        for (int index = 0; index < 100; index++) {
+            table.addRow().setValue(input, SimpleValueFactory.getInstance().createLiteral(index));
+        }
+        assertEquals(100, table.size(), "Correct number of rows");
+
+        MutableBindingSet row = table.getRows().get(42);
+        assertEquals("42", row.getValue("input").stringValue(), "Value survived growing the columns");
+        assertFalse(row.hasBinding("output"), "Output not yet bound");
+        row.addBinding("output", SimpleValueFactory.getInstance().createLiteral("result"));
+        assertEquals(2, row.size(), "Correct number of bindings");
+        assertNull(table.getRows().get(41).getValue("output"), "Other rows are not affected");
+
+        MapBindingSet expected = new MapBindingSet();
+        expected.addBinding("input", SimpleValueFactory.getInstance().createLiteral(42));
+        expected.addBinding("output", SimpleValueFactory.getInstance().createLiteral("result"));
+        assertEquals(expected, row, "Rows are equal to map binding sets");
+
+        Value copied = table.addRow(expected).getValue("output");
+        assertTrue(copied != null && copied.stringValue().equals("result"), "Copied row has the bindings");
+    }
+
+    @Test
+    public void testJoin() {
+        SimpleValueFactory vf = SimpleValueFactory.getInstance();
+        BindingTable table = new BindingTable();
+        for (int index = 1; index <= 3; index++) {
+            table.addRow().addBinding("a", vf.createLiteral(index));
+        }
+
+        List<BindingSet> block = new ArrayList<>();
+        block.add(new ListBindingSet(List.of("a", "c"), vf.createLiteral(1), vf.createLiteral("p")));
+        block.add(new ListBindingSet(List.of("a", "c"), vf.createLiteral(1), vf.createLiteral("q")));
+        block.add(new ListBindingSet(List.of("a", "c"), vf.createLiteral(2), vf.createLiteral("r")));
+        block.add(new ListBindingSet(List.of("a", "c"), null, vf.createLiteral("s")));
+        block.add(new ListBindingSet(List.of("a", "c"), vf.createLiteral(4), vf.createLiteral("t")));
+        table.join(block, List.of("a", "c"));
+        assertEquals(6, table.size(), "Hash join on shared variable with undefined values");
+        assertEquals(3, table.getRows().stream().filter(row -> row.getValue("a").stringValue().equals("1")).count(), "Correct matches for 1");
+        assertEquals(1, table.getRows().stream().filter(row -> row.getValue("a").stringValue().equals("3")).count(), "Only undefined value matches 3");
+        assertTrue(table.getRows().stream().noneMatch(row -> row.getValue("c").stringValue().equals("t")), "Unmatched value is dropped");
+
+        block = List.of(new ListBindingSet(List.of("d"), vf.createLiteral("x")), new ListBindingSet(List.of("d"), vf.createLiteral("y")));
+        table.join(block, List.of("d"));
+        assertEquals(12, table.size(), "Cross product without shared variables");
+    }
+
+    @Test
+    public void testUnboundSlots() {
+        SimpleValueFactory vf = SimpleValueFactory.getInstance();
+        BindingTable table = new BindingTable();
+        table.slot("output");
+        for (int index = 1; index <= 3; index++) {
+            table.addRow().addBinding("a", vf.createLiteral(index));
+        }
+        assertTrue(table.isBound("a"), "Variable with values is bound");
+        assertFalse(table.isBound("output"), "Plan-time slot is not bound");
+
+        AtomicInteger lookups = new AtomicInteger();
+        BindingSet candidate = new ListBindingSet(List.of("a", "output"), vf.createLiteral(2), vf.createLiteral("x")) {
+            @Override
+            public Value getValue(String bindingName) {
+                lookups.incrementAndGet();
+                return super.getValue(bindingName);
+            }
+        };
+        table.join(List.of(candidate), List.of("a", "output"));
+        assertEquals(1, table.size(), "Joined on the bound variable only");
+        assertEquals("x", table.getRows().get(0).getValue("output").stringValue(), "Unbound slot takes the block value");
+        assertEquals(3, lookups.get(), "Rows are probed through the hash, not compared with the block");
+    }
+
+}
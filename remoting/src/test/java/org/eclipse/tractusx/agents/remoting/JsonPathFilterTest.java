@@ -0,0 +1,56 @@
+package org.eclipse.tractusx.agents.remoting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.eclipse.tractusx.agents.remoting.util.JsonPathFilter;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * tests the streaming extraction of json results
+ */
+public class JsonPathFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String RESPONSE = "{ \"header\": { \"version\": 1 }, \"content\": { \"results\": [ " +
+            "{ \"id\": \"a\", \"spectrum\": [ 1, 2, 3 ], \"health\": { \"value\": 42, \"unit\": \"%\" } }, " +
+            "{ \"id\": \"b\", \"spectrum\": [ 4, 5, 6 ], \"health\": { \"value\": 43, \"unit\": \"%\" } } ] } }";
+
+    @Test
+    public void testFilter() throws Exception {
+        JsonPathFilter filter = JsonPathFilter.compile("content.results", "id", List.of("health.value"));
+        JsonNode result = filter.read(objectMapper, new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8)));
+        JsonNode full = objectMapper.readTree(RESPONSE);
+
+        assertFalse(result.has("header"), "Unreferenced properties are skipped");
+        JsonNode results = (JsonNode) Invocation.traversePath(result, "content", "results");
+        assertEquals(2, results.size(), "Array positions are kept");
+        assertFalse(results.get(0).has("spectrum"), "Unreferenced array element properties are skipped");
+        assertFalse(results.get(0).get("health").has("unit"), "Unreferenced nested properties are skipped");
+        for (int count = 0; count < results.size(); count++) {
+            assertEquals(Invocation.traversePath(full, "content", "results", String.valueOf(count), "id"),
+                    Invocation.traversePath(results.get(count), "id"), "Correlation id is extracted");
+            assertEquals(Invocation.traversePath(full, "content", "results", String.valueOf(count), "health", "value"),
+                    Invocation.traversePath(results.get(count), "health", "value"), "Output is extracted");
+        }
+    }
+
+    @Test
+    public void testIndexedFilter() throws Exception {
+        JsonPathFilter filter = JsonPathFilter.compile("content.results.1", null, java.util.Collections.singletonList(null));
+        JsonNode result = filter.read(objectMapper, new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8)));
+        JsonNode results = (JsonNode) Invocation.traversePath(result, "content", "results");
+        assertTrue(results.get(0).isNull(), "Unselected positions are placeholders");
+        assertEquals(objectMapper.readTree(RESPONSE).get("content").get("results").get(1), results.get(1), "Selected position is captured completely");
+    }
+
+}
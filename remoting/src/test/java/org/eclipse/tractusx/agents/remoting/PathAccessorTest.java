@@ -0,0 +1,110 @@
+package org.eclipse.tractusx.agents.remoting;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.tractusx.agents.remoting.config.ArgumentConfig;
+import org.eclipse.tractusx.agents.remoting.config.ReturnValueConfig;
+import org.eclipse.tractusx.agents.remoting.util.DataTypeConverter;
+import org.eclipse.tractusx.agents.remoting.util.PathAccessor;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Element;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * tests the pre-compiled accessors of results and arguments
+ */
+public class PathAccessorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    private static final String JSON = "{ \"content\": { \"results\": [ " +
+            "{ \"id\": \"a\", \"health\": { \"value\": 42 } }, " +
+            "{ \"id\": \"b\", \"health\": { \"value\": 43 } } ] } }";
+
+    private static final String XML = "<response><results>" +
+            "<result id=\"a\"><health value=\"42\"/></result>" +
+            "</results></response>";
+
+    @Test
+    public void testJsonPath() throws Exception {
+        JsonNode response = objectMapper.readTree(JSON);
+        PathAccessor accessor = PathAccessor.compile("content.results.1.health.value");
+        assertEquals(Invocation.traversePath(response, "content", "results", "1", "health", "value"),
+                accessor.traverse(response), "Compiled path finds the same node");
+        assertEquals("43", Invocation.convertObjectToString(accessor.traverse(response)), "Array index is followed");
+        assertThrows(SailException.class, () -> PathAccessor.compile("content.results.2").traverse(response), "Index out of range fails");
+        assertThrows(SailException.class, () -> PathAccessor.compile("content.results.first").traverse(response), "Non-numeric index fails");
+        assertThrows(SailException.class, () -> PathAccessor.compile("content.missing").traverse(response), "Missing field fails");
+    }
+
+    @Test
+    public void testXmlPath() throws Exception {
+        Element response = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(XML.getBytes(StandardCharsets.UTF_8))).getDocumentElement();
+        Object result = PathAccessor.compile("results.result").traverse(response);
+        assertEquals("a", PathAccessor.compile("id").traverse(result), "Attribute is found");
+        assertEquals("42", Invocation.convertObjectToString(PathAccessor.compile("health.value").traverse(result)), "Attribute of a nested element is found");
+        assertThrows(SailException.class, () -> PathAccessor.compile("results.missing").traverse(response), "Missing element fails");
+    }
+
+    @Test
+    public void testEmptyPath() throws Exception {
+        JsonNode response = objectMapper.readTree(JSON);
+        assertSame(PathAccessor.EMPTY, PathAccessor.compile(null), "Null path is empty");
+        assertSame(PathAccessor.EMPTY, PathAccessor.compile(".."), "Path without segments is empty");
+        assertSame(response, PathAccessor.EMPTY.traverse(response), "Empty path returns the source");
+    }
+
+    @Test
+    public void testConverters() throws Exception {
+        JsonNode response = objectMapper.readTree(JSON);
+        PathAccessor accessor = PathAccessor.compile("content.results.0.health.value");
+        for (String dataType : new String[] {"http://www.w3.org/2001/XMLSchema#int", "http://www.w3.org/2001/XMLSchema#double",
+                "http://www.w3.org/2001/XMLSchema#string", "https://json-schema.org/draft/2020-12/schema#Object"}) {
+            assertEquals(Invocation.convertOutputToValue(response, vf, "content.results.0.health.value", dataType),
+                    Invocation.convertOutputToValue(response, vf, accessor, DataTypeConverter.forDataType(dataType), dataType),
+                    "Compiled converter yields the same literal");
+        }
+        assertNull(DataTypeConverter.forDataType("http://www.w3.org/2001/XMLSchema#unknown"), "Unknown data type has no converter");
+        assertThrows(SailException.class, () -> DataTypeConverter.INT.convert("forty-two", vf), "Malformed integer fails");
+    }
+
+    @Test
+    public void testReturnValue() throws Exception {
+        ReturnValueConfig rvc = new ReturnValueConfig();
+        rvc.setPath("health.value");
+        rvc.setDataType("http://www.w3.org/2001/XMLSchema#int");
+        rvc.validate("test");
+        assertEquals("health.value", rvc.getAccessor().getPath(), "Path is compiled on validation");
+        assertSame(DataTypeConverter.INT, rvc.getConverter(), "Converter is resolved on validation");
+    }
+
+    @Test
+    public void testArgumentPaths() {
+        ArgumentConfig ac = new ArgumentConfig();
+        ac.setArgumentName("input.componentId,header.id");
+        assertArrayEquals(new String[][] {{"input", "componentId"}, {"header", "id"}}, ac.getArgumentPaths(), "Argument name is split once");
+        assertSame(ac.getArgumentPaths(), ac.getArgumentPaths(), "Split paths are reused");
+        ac.setArgumentName("input.{https://w3id.org/catenax/ontology/prognosis#name}");
+        assertNull(ac.getArgumentPaths(), "Templates are resolved per binding");
+        ac.setArgumentName("input.name");
+        assertArrayEquals(new String[][] {{"input", "name"}}, ac.getArgumentPaths(), "Renaming recompiles the paths");
+    }
+
+}
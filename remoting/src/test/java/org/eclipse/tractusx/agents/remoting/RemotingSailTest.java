@@ -20,6 +20,8 @@ import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.util.*;
 
 import org.eclipse.rdf4j.query.*;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
 
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
@@ -28,9 +30,22 @@ import org.eclipse.rdf4j.common.iteration.Iterations;
 
 import org.eclipse.rdf4j.rio.*;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 import org.eclipse.tractusx.agents.remoting.config.*;
+import org.eclipse.tractusx.agents.remoting.test.TestBatchFunction;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -40,6 +55,79 @@ public class RemotingSailTest {
 
     public static String REPO_NAMESPACE="http://www.openrdf.org/config/repository#";
 
+    public static String PROGNOSIS="https://w3id.org/catenax/ontology/prognosis#Prognosis";
+
+    /**
+     * creates a config with a prognosis service of two arguments and one output
+     * @param targetUri the target of the service
+     * @return config which still needs to be validated
+     */
+    public static RemotingSailConfig prognosisConfig(String targetUri) {
+        RemotingSailConfig rsc=new RemotingSailConfig(RemotingSailFactory.SAIL_TYPE);
+        ServiceConfig ic=new ServiceConfig();
+        rsc.putService(PROGNOSIS,ic);
+        ic.setTargetUri(targetUri);
+        ArgumentConfig ac=new ArgumentConfig();
+        ac.setArgumentName("arg0");
+        ic.getArguments().put("https://w3id.org/catenax/ontology/prognosis#input-1",ac);
+        ac=new ArgumentConfig();
+        ac.setArgumentName("arg1");
+        ic.getArguments().put("https://w3id.org/catenax/ontology/prognosis#input-2",ac);
+        ResultConfig rc=new ResultConfig();
+        ic.setResult(rc);
+        ic.setResultName("https://w3id.org/catenax/ontology/prognosis#Result");
+        rc.getOutputs().put("https://w3id.org/catenax/ontology/prognosis#output",new ReturnValueConfig());
+        return rsc;
+    }
+
+    /**
+     * creates a query of the prognosis service whose first input is bound by a VALUES block
+     * @param select the projected variables
+     * @param second the value of the second input
+     * @param modifiers the solution modifiers
+     * @param inputs the values of the first input
+     * @return the query
+     */
+    public static String prognosisQuery(String select, String second, String modifiers, String... inputs) {
+        StringBuilder values=new StringBuilder();
+        for (String input : inputs) {
+            values.append("(\"").append(input).append("\"^^xsd:string) ");
+        }
+        return "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "+
+            "PREFIX prognosis: <https://w3id.org/catenax/ontology/prognosis#> "+
+            "SELECT "+select+" "+
+            "WHERE { "+
+            "VALUES (?input) { "+values+"} "+
+            "?invocation a prognosis:Prognosis; "+
+            "            prognosis:input-1 ?input; "+
+            "            prognosis:input-2 \""+second+"\"^^xsd:string; "+
+            "            prognosis:output ?output. "+
+            "} "+modifiers;
+    }
+
+    /**
+     * evaluates a tuple query
+     * @param rep the repository
+     * @param query the query
+     * @return the result rows
+     */
+    public static List<BindingSet> evaluate(Repository rep, String query) {
+        try (RepositoryConnection conn = rep.getConnection()) {
+            return Iterations.asList(((TupleQuery) conn.prepareQuery(QueryLanguage.SPARQL,query)).evaluate());
+        }
+    }
+
+    /**
+     * resets the counters of the test functions
+     */
+    @BeforeEach
+    public void setup() {
+        TestBatchFunction.CALLS.set(0);
+        TestBatchFunction.INSTANCES.set(0);
+        TestBatchFunction.MAX_ACTIVE.set(0);
+        TestBatchFunction.DELAY = 0;
+    }
+
     /**
      * tests parsing a config
      */
@@ -53,7 +141,24 @@ public class RemotingSailTest {
         assertEquals(5,rsc.listServices().size(),"correct number of invocation configs");
         ServiceConfig health = rsc.getService("https://w3id.org/catenax/ontology/health#HealthIndication");
         assertEquals(100, health.getBatch(),"Correct batch size");
+        assertEquals(4, health.getParallelism(),"Correct parallelism");
+        assertEquals(10, health.getConnectionPoolSize(),"Correct connection pool size");
+        assertEquals(120000, health.getSocketTimeout(),"Correct socket timeout");
+        assertEquals(300000, health.getCacheTtl(),"Correct cache time to live");
+        assertEquals(5000, health.getCacheSize(),"Correct cache size");
         assertEquals("https://w3id.org/catenax/ontology/health#requestComponentId", health.getResult().getCorrelationInput(),"Correct correlation input");
+        assertTrue(health.isCoalesce(),"Coalescing can be switched on");
+        assertFalse(rsc.getService("https://w3id.org/catenax/ontology/lifetime#LifetimePrognosis").isCoalesce(),"Identical calls are not coalesced by default");
+        assertEquals(60000, health.getCallbackTimeout(),"Default callback timeout");
+        assertEquals(30000, rsc.getService("https://w3id.org/catenax/ontology/rul#RemainingUsefulLife").getCallbackTimeout(),"Correct callback timeout");
+        assertEquals(100, rsc.getService("https://w3id.org/catenax/ontology/rul#RemainingUsefulLife").getMaxPending(),"Correct maximal pending calls");
+        assertEquals(16, rsc.getIoParallelism(),"Correct io parallelism");
+        assertEquals(16, ((ThreadPoolExecutor) new RemotingSail(rsc).getExecutor()).getMaximumPoolSize(),"Executor is bounded by the io parallelism");
+        assertEquals(ServiceConfig.INVOCATION_SCOPE, health.getInstanceScope(),"Default instance scope");
+        assertEquals(ServiceConfig.SINGLETON_SCOPE, rsc.getService("https://w3id.org/catenax/ontology/remoting#Test").getInstanceScope(),"Correct instance scope");
+        assertTrue(rsc.getService("https://w3id.org/catenax/ontology/remoting#Test").isPure(),"Correct pure flag");
+        assertFalse(health.isPure(),"Functions are not pure by default");
+        assertEquals(2, rsc.getComputeParallelism(),"Correct compute parallelism");
         ServiceConfig rul = rsc.getService("https://w3id.org/catenax/ontology/rul#RemainingUsefulLife");
         assertNotNull(rul.getCallbackProperty(),"Correct asynchronous mode");
         ArgumentConfig notificationTemplate= rul.getArguments().get("https://w3id.org/catenax/ontology/rul#notification");
@@ -122,6 +227,402 @@ public class RemotingSailTest {
         }
     }
     
+    /**
+     * tests a chain of invocations where the second one consumes the output of the first one
+     */
+    @Test
+    public void testChainedInvocation() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestFunction#test");
+        rsc.validate();
+
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+
+        try (RepositoryConnection conn = rep.getConnection()) {
+            TupleQuery query=(TupleQuery) conn.prepareQuery(QueryLanguage.SPARQL,
+            "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "+
+                "PREFIX prognosis: <https://w3id.org/catenax/ontology/prognosis#> "+
+                "SELECT ?total "+
+                "WHERE { "+
+                "?second a prognosis:Prognosis; "+
+                "            prognosis:input-1 ?sum; "+
+                "            prognosis:input-2 \"4\"^^xsd:string; "+
+                "            prognosis:output ?total. "+
+                "?first a prognosis:Prognosis; "+
+                "            prognosis:input-1 \"1\"^^xsd:string; "+
+                "            prognosis:input-2 \"2\"^^xsd:string; "+
+                "            prognosis:output ?sum. "+
+                "}");
+            List<BindingSet> bindings = Iterations.asList(query.evaluate());
+            assertEquals(1,bindings.size(),"Correct number of bindings");
+            assertEquals("7",bindings.get(0).getValue("total").stringValue(),"Second invocation consumed the output of the first");
+        }
+    }
+
+    /**
+     * tests that external bindings and a bound join VALUES block drive a single invocation
+     */
+    @Test
+    public void testSeededInvocation() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestFunction#test");
+        rsc.validate();
+
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+
+        try (RepositoryConnection conn = rep.getConnection()) {
+            TupleQuery query=(TupleQuery) conn.prepareQuery(QueryLanguage.SPARQL,
+            "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "+
+                "PREFIX prognosis: <https://w3id.org/catenax/ontology/prognosis#> "+
+                "SELECT ?__index ?output "+
+                "WHERE { "+
+                "VALUES (?input ?__index) { (\"1\"^^xsd:string \"0\") (\"2\"^^xsd:string \"1\") } "+
+                "?invocation a prognosis:Prognosis; "+
+                "            prognosis:input-1 ?input; "+
+                "            prognosis:input-2 ?offset; "+
+                "            prognosis:output ?output. "+
+                "}");
+            query.setBinding("offset", rep.getValueFactory().createLiteral("3"));
+            List<BindingSet> bindings = Iterations.asList(query.evaluate());
+            assertEquals(2,bindings.size(),"Correct number of bindings");
+            for (BindingSet binding : bindings) {
+                assertEquals(String.valueOf(Integer.parseInt(binding.getValue("__index").stringValue()) + 4),
+                        binding.getValue("output").stringValue(),"External binding seeded the invocation");
+            }
+        }
+    }
+
+    /**
+     * tests that filters on inputs are applied before and filters on outputs after the invocation
+     */
+    @Test
+    public void testFilteredInvocation() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestBatchFunction#apply");
+        rsc.validate();
+
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+
+        try (RepositoryConnection conn = rep.getConnection()) {
+            TupleQuery query=(TupleQuery) conn.prepareQuery(QueryLanguage.SPARQL,
+            "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "+
+                "PREFIX prognosis: <https://w3id.org/catenax/ontology/prognosis#> "+
+                "SELECT ?input ?output "+
+                "WHERE { "+
+                "VALUES (?input) { (\"1\"^^xsd:string) (\"2\"^^xsd:string) (\"3\"^^xsd:string) "+
+                "                  (\"4\"^^xsd:string) (\"5\"^^xsd:string) (\"6\"^^xsd:string) } "+
+                "?invocation a prognosis:Prognosis; "+
+                "            prognosis:input-1 ?input; "+
+                "            prognosis:input-2 \"2\"^^xsd:string; "+
+                "            prognosis:output ?output. "+
+                "FILTER(?input != \"3\"^^xsd:string && xsd:integer(?output) > 5) "+
+                "}");
+            List<BindingSet> bindings = Iterations.asList(query.evaluate());
+            assertEquals(3,bindings.size(),"Output filter applied");
+            for (BindingSet binding : bindings) {
+                assertTrue(Integer.parseInt(binding.getValue("output").stringValue()) > 5,"Correct output");
+            }
+        }
+        assertEquals(5,TestBatchFunction.CALLS.get(),"Input filter applied before the invocation");
+    }
+
+    /**
+     * tests that a limit stops the invocation once enough rows have been produced
+     */
+    @Test
+    public void testSlicedInvocation() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestBatchFunction#apply");
+        rsc.validate();
+
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+
+        List<BindingSet> bindings=evaluate(rep,prognosisQuery("?input ?output","2","LIMIT 2 OFFSET 1","1","2","3","4","5","6"));
+        assertEquals(2,bindings.size(),"Limit applied");
+        assertEquals(3,TestBatchFunction.CALLS.get(),"No batches started after the limit was reached");
+    }
+
+    /**
+     * tests ordered and distinct results of a function
+     */
+    @Test
+    public void testOrderedInvocation() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestBatchFunction#apply");
+        rsc.validate();
+
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+
+        List<BindingSet> bindings=evaluate(rep,prognosisQuery("DISTINCT ?output","2","ORDER BY DESC(?output) LIMIT 2 OFFSET 1","1","2","3","4","3","1"));
+        assertEquals(2,bindings.size(),"Limit applied");
+        assertEquals("5",bindings.get(0).getValue("output").stringValue(),"Ordered and distinct");
+        assertEquals("4",bindings.get(1).getValue("output").stringValue(),"Ordered and distinct");
+    }
+
+    /**
+     * tests that an ordered and sliced query only compares duplicates within its bounded heap
+     */
+    @Test
+    public void testOrderedMemory() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestBatchFunction#apply");
+        rsc.validate();
+
+        RemotingSail sail=new RemotingSail(rsc);
+        Repository rep = new SailRepository(sail);
+        rep.init();
+
+        TupleExpr expr=QueryParserUtil.parseTupleQuery(QueryLanguage.SPARQL,
+            prognosisQuery("?output","2","ORDER BY ?output LIMIT 2 OFFSET 1","1","2","3","4","3","1"),null).getTupleExpr();
+        AtomicInteger heap=new AtomicInteger(-1);
+        try (RemotingSailConnection conn=(RemotingSailConnection) sail.getConnection()) {
+            BindingStream stream=new BindingStream();
+            QueryExecutor visitor=new QueryExecutor(conn,stream) {
+                @Override
+                protected void flushOrdered() {
+                    heap.set(ordered.size());
+                    super.flushOrdered();
+                }
+            };
+            expr.visit(visitor);
+            visitor.getExecution().whenComplete((result, failure) -> stream.finish(failure)).join();
+            List<BindingSet> bindings = Iterations.asList(stream);
+            assertNull(visitor.distincts,"No unbounded duplicate filter");
+            assertTrue(visitor.heapRows.isEmpty(),"Heap duplicate filter released");
+            assertEquals(3,heap.get(),"Only offset plus limit rows are kept for ordering");
+            assertEquals(2,bindings.size(),"Limit applied");
+            assertEquals("4",bindings.get(0).getValue("output").stringValue(),"Ordered and without duplicates");
+            assertEquals("5",bindings.get(1).getValue("output").stringValue(),"Ordered and without duplicates");
+        } finally {
+            rep.shutDown();
+        }
+    }
+
+    /**
+     * tests that the bindings of a pure function are computed in parallel
+     */
+    @Test
+    public void testPureInvocation() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestFunction#test");
+        rsc.setComputeParallelism(4);
+        ServiceConfig ic=rsc.getService(PROGNOSIS);
+        ic.setPure(true);
+        rsc.validate();
+
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+
+        List<BindingSet> bindings=evaluate(rep,prognosisQuery("?input ?output","3","","1","2","3","4","5","6","7","8"));
+        assertEquals(8,bindings.size(),"Correct number of bindings");
+        for (BindingSet binding : bindings) {
+            assertEquals(String.valueOf(Integer.parseInt(binding.getValue("input").stringValue()) + 3),
+                    binding.getValue("output").stringValue(),"Each binding received its own output");
+        }
+    }
+
+    /**
+     * tests that a binding whose argument cannot be converted does not abort the parallel computation
+     */
+    @Test
+    public void testPureConversionFailure() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestFunction#test");
+        rsc.setComputeParallelism(4);
+        rsc.getService(PROGNOSIS).setPure(true);
+        rsc.validate();
+
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+
+        List<BindingSet> bindings=evaluate(rep,prognosisQuery("?input ?output","3","","1","2","3","x","5","6","7","8"));
+        assertEquals(8,bindings.size(),"All bindings are handed out");
+        for (BindingSet binding : bindings) {
+            if (binding.getValue("input").stringValue().equals("x")) {
+                assertNull(binding.getValue("output"),"Failed binding has no output");
+            } else {
+                assertEquals(String.valueOf(Integer.parseInt(binding.getValue("input").stringValue()) + 3),
+                        binding.getValue("output").stringValue(),"Other bindings received their output");
+            }
+        }
+    }
+
+    /**
+     * tests that a batch function is called once per batch on a pooled instance
+     */
+    @Test
+    public void testBatchFunction() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestBatchFunction#apply");
+        ServiceConfig ic=rsc.getService(PROGNOSIS);
+        ic.setBatch(2);
+        ic.setInstanceScope(ServiceConfig.POOLED_SCOPE);
+        rsc.validate();
+        assertTrue(ic.getClassTarget().isBatch(),"Batch function detected");
+
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+
+        for (int query = 0; query < 2; query++) {
+            List<BindingSet> bindings=evaluate(rep,prognosisQuery("?input ?output","2","","1","2","3"));
+            assertEquals(3,bindings.size(),"Correct number of bindings");
+            for (BindingSet binding : bindings) {
+                assertEquals(String.valueOf(Integer.parseInt(binding.getValue("input").stringValue()) + 2),
+                        binding.getValue("output").stringValue(),"Batch function computed the sum");
+            }
+        }
+        assertEquals(4,TestBatchFunction.CALLS.get(),"Two batches per query");
+        assertEquals(1,TestBatchFunction.INSTANCES.get(),"Pooled instance is reused");
+    }
+
+    /**
+     * tests that the pooled scope keeps at most the configured number of idle instances
+     */
+    @Test
+    public void testPoolLimit() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestBatchFunction#apply");
+        ServiceConfig ic=rsc.getService(PROGNOSIS);
+        ic.setInstanceScope(ServiceConfig.POOLED_SCOPE);
+        ic.setMaxPooled(1);
+        rsc.validate();
+
+        RemotingSail sail=new RemotingSail(rsc);
+        Object first=sail.acquireInstance(ic,null);
+        Object second=sail.acquireInstance(ic,null);
+        assertEquals(2,TestBatchFunction.INSTANCES.get(),"Concurrent invocations get their own instances");
+        sail.releaseInstance(ic,first);
+        sail.releaseInstance(ic,second);
+        assertEquals(1,sail.pools.get(ic).size(),"Pool is bounded");
+        assertSame(first,sail.acquireInstance(ic,null),"Pooled instance is reused");
+        assertEquals(2,TestBatchFunction.INSTANCES.get(),"No instance is created for a pooled one");
+    }
+
+    /**
+     * tests that a shared instance of a function which is not pure is invoked by one query at a time
+     */
+    @Test
+    public void testSharedInstance() throws Exception {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestBatchFunction#apply");
+        ServiceConfig ic=rsc.getService(PROGNOSIS);
+        ic.setBatch(1);
+        ic.setInstanceScope(ServiceConfig.SINGLETON_SCOPE);
+        rsc.validate();
+        TestBatchFunction.DELAY = 50;
+
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+
+        Callable<List<BindingSet>> task = () -> evaluate(rep,prognosisQuery("?input ?output","2","","1","2","3"));
+        ExecutorService queries = Executors.newFixedThreadPool(2);
+        try {
+            for (Future<List<BindingSet>> result : queries.invokeAll(List.of(task, task))) {
+                List<BindingSet> bindings = result.get(10, TimeUnit.SECONDS);
+                assertEquals(3,bindings.size(),"Correct number of bindings");
+                for (BindingSet binding : bindings) {
+                    assertEquals(String.valueOf(Integer.parseInt(binding.getValue("input").stringValue()) + 2),
+                            binding.getValue("output").stringValue(),"Batch function computed the sum");
+                }
+            }
+        } finally {
+            queries.shutdown();
+        }
+        assertEquals(6,TestBatchFunction.CALLS.get(),"One call per binding");
+        assertEquals(1,TestBatchFunction.INSTANCES.get(),"Singleton instance is shared");
+        assertEquals(1,TestBatchFunction.MAX_ACTIVE.get(),"Shared instance is invoked by one query at a time");
+    }
+
+    /**
+     * tests that the outputs of several bindings are pipelined into a dependent invocation
+     */
+    @Test
+    public void testPipelinedInvocation() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestFunction#test");
+        rsc.validate();
+
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+
+        try (RepositoryConnection conn = rep.getConnection()) {
+            TupleQuery query=(TupleQuery) conn.prepareQuery(QueryLanguage.SPARQL,
+            "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "+
+                "PREFIX prognosis: <https://w3id.org/catenax/ontology/prognosis#> "+
+                "SELECT ?input ?total "+
+                "WHERE { "+
+                "VALUES (?input) { (\"1\"^^xsd:string) (\"2\"^^xsd:string) (\"3\"^^xsd:string) } "+
+                "?second a prognosis:Prognosis; "+
+                "            prognosis:input-1 ?sum; "+
+                "            prognosis:input-2 \"4\"^^xsd:string; "+
+                "            prognosis:output ?total. "+
+                "?first a prognosis:Prognosis; "+
+                "            prognosis:input-1 ?input; "+
+                "            prognosis:input-2 \"2\"^^xsd:string; "+
+                "            prognosis:output ?sum. "+
+                "}");
+            List<BindingSet> bindings = Iterations.asList(query.evaluate());
+            assertEquals(3,bindings.size(),"Correct number of bindings");
+            for (BindingSet binding : bindings) {
+                assertEquals(String.valueOf(Integer.parseInt(binding.getValue("input").stringValue()) + 6),
+                        binding.getValue("total").stringValue(),"Second invocation consumed the output of the first");
+            }
+        }
+    }
+
+    /**
+     * tests that a binding whose argument cannot be converted does not abort the other bindings
+     */
+    @Test
+    public void testConversionFailure() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestFunction#test");
+        rsc.validate();
+
+        Repository rep = new SailRepository(new RemotingSail(rsc));
+
+        List<BindingSet> bindings=evaluate(rep,prognosisQuery("?input ?output","2","","1","x","3"));
+        assertEquals(3,bindings.size(),"All bindings are handed out");
+        for (BindingSet binding : bindings) {
+            if (binding.getValue("input").stringValue().equals("x")) {
+                assertNull(binding.getValue("output"),"Failed binding has no output");
+            } else {
+                assertEquals(String.valueOf(Integer.parseInt(binding.getValue("input").stringValue()) + 2),
+                        binding.getValue("output").stringValue(),"Other bindings received their output");
+            }
+        }
+    }
+
+    /**
+     * tests that repeated invocations are answered from the result cache
+     */
+    @Test
+    public void testCachedInvocation() {
+
+        RemotingSailConfig rsc=prognosisConfig("class:org.eclipse.tractusx.agents.remoting.test.TestFunction#test");
+        ServiceConfig ic=rsc.getService(PROGNOSIS);
+        ic.setCacheTtl(60000);
+        rsc.validate();
+
+        RemotingSail sail = new RemotingSail(rsc);
+        Repository rep = new SailRepository(sail);
+
+        try (RepositoryConnection conn = rep.getConnection()) {
+            for (int run = 0; run < 2; run++) {
+                TupleQuery query=(TupleQuery) conn.prepareQuery(QueryLanguage.SPARQL,
+                "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> "+
+                    "PREFIX prognosis: <https://w3id.org/catenax/ontology/prognosis#> "+
+                    "SELECT ?output "+
+                    "WHERE { "+
+                    "?invocation a prognosis:Prognosis; "+
+                    "            prognosis:input-1 \"1\"^^xsd:string; "+
+                    "            prognosis:input-2 \"2\"^^xsd:string; "+
+                    "            prognosis:output ?output. "+
+                    "}");
+                List<BindingSet> bindings = Iterations.asList(query.evaluate());
+                assertEquals(1,bindings.size(),"Correct number of bindings");
+                assertEquals("3",bindings.get(0).getValue("output").stringValue(),"Correct (cached) output");
+            }
+        }
+        assertEquals(1,sail.getResultCache(ic).getMisses(),"First invocation was a cache miss");
+        assertEquals(1,sail.getResultCache(ic).getHits(),"Second invocation was a cache hit");
+    }
+
     /**
      * tests basic invocation features
      */
@@ -254,4 +755,34 @@ public class RemotingSailTest {
 
 
 
-}
\ No newline at end of file
+    /**
+     * tests that tasks beyond the bounded queue of the executor are rejected
+     */
+    @Test
+    public void testBoundedQueue() {
+        RemotingSailConfig rsc=new RemotingSailConfig(RemotingSailFactory.SAIL_TYPE);
+        rsc.setIoParallelism(1);
+        rsc.setIoQueueSize(1);
+        rsc.validate();
+
+        RemotingSail sail=new RemotingSail(rsc);
+        Repository rep = new SailRepository(sail);
+        rep.init();
+        CountDownLatch busy=new CountDownLatch(1);
+        try {
+            sail.getExecutor().execute(() -> {
+                try {
+                    busy.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            sail.getExecutor().execute(() -> { });
+            assertThrows(RejectedExecutionException.class,() -> sail.getExecutor().execute(() -> { }),"Tasks beyond the queue are rejected");
+        } finally {
+            busy.countDown();
+            rep.shutDown();
+        }
+    }
+
+}
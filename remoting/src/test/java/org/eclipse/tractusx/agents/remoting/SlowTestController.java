@@ -0,0 +1,66 @@
+// Copyright (c) 2022,2023 Contributors to the Eclipse Foundation
+//
+// See the NOTICE file(s) distributed with this work for additional
+// information regarding copyright ownership.
+//
+// This program and the accompanying materials are made available under the
+// terms of the Apache License, Version 2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0.
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+// WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+// License for the specific language governing permissions and limitations
+// under the License.
+//
+// SPDX-License-Identifier: Apache-2.0
+package org.eclipse.tractusx.agents.remoting;
+
+import org.apache.commons.io.IOUtils;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * a test controller which answers slowly and counts its calls, so that concurrent calls overlap
+ */
+@Controller
+@RequestMapping("/slow")
+public class SlowTestController implements org.springframework.web.servlet.mvc.Controller {
+
+    /**
+     * number of calls received
+     */
+    public static final AtomicInteger CALLS = new AtomicInteger();
+
+    /**
+     * time in milliseconds to wait before answering
+     */
+    public static long DELAY = 1000;
+
+    /**
+     * the actual request handler
+     * @param request http request
+     * @param response http response
+     * @return an empty redirection
+     */
+    @Override
+    @GetMapping
+    public ModelAndView handleRequest(javax.servlet.http.HttpServletRequest request, javax.servlet.http.HttpServletResponse response)  {
+        int calls = CALLS.incrementAndGet();
+        try {
+            Thread.sleep(DELAY);
+            byte[] responseBody = String.format("{ \"echo\": \"%s\", \"calls\": %d }", request.getParameter("name"), calls).getBytes();
+            response.setStatus(200);
+            response.setContentType("application/json");
+            response.setContentLength(responseBody.length);
+            IOUtils.write(responseBody, response.getOutputStream());
+        } catch(InterruptedException | IOException e) {
+            response.setStatus(500);
+        }
+        return null;
+    }
+}
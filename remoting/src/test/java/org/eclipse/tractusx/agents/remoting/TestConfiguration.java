@@ -16,6 +16,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.eclipse.tractusx.agents.remoting;
 
+import org.springframework.boot.SpringApplication;
 import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
@@ -33,4 +34,13 @@ public class TestConfiguration {
         return new TomcatServletWebServerFactory();
     }
 
+    /**
+     * runs the test agent standalone, e.g., as a peer in another process
+     *
+     * @param args command line args
+     */
+    public static void main(String[] args) {
+        SpringApplication.run(TestConfiguration.class, args);
+    }
+
 }
@@ -0,0 +1,63 @@
+package org.eclipse.tractusx.agents.remoting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.eclipse.tractusx.agents.remoting.util.XmlPathFilter;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Element;
+
+/**
+ * tests the streaming extraction of xml results
+ */
+public class XmlPathFilterTest {
+
+    private static final String RESPONSE = "<response version=\"1\"><header><created>today</created></header><results>" +
+            "<result id=\"a\"><spectrum><bin>1</bin><bin>2</bin></spectrum><health unit=\"%\"><value>42</value></health></result>" +
+            "<result id=\"b\"><spectrum><bin>3</bin><bin>4</bin></spectrum><health unit=\"%\"><value>43</value></health></result>" +
+            "</results></response>";
+
+    @Test
+    public void testFilter() throws Exception {
+        XmlPathFilter filter = XmlPathFilter.compile("results", "id", List.of("health"));
+        Element result = filter.read(new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8)));
+        Element full = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8))).getDocumentElement();
+
+        assertEquals(0, result.getElementsByTagName("header").getLength(), "Unreferenced elements are skipped");
+        assertEquals(0, result.getElementsByTagName("spectrum").getLength(), "Unreferenced nested elements are skipped");
+        assertEquals("", result.getAttribute("version"), "Unreferenced attributes are skipped");
+        Element results = (Element) Invocation.traversePath(result, "results");
+        assertEquals(2, results.getChildNodes().getLength(), "Correlated elements are kept");
+        for (int count = 0; count < results.getChildNodes().getLength(); count++) {
+            Object fullResult = ((Element) Invocation.traversePath(full, "results")).getChildNodes().item(count);
+            assertEquals(Invocation.convertObjectToString(Invocation.traversePath(fullResult, "id")),
+                    Invocation.convertObjectToString(Invocation.traversePath(results.getChildNodes().item(count), "id")), "Correlation id is extracted");
+            assertEquals(Invocation.convertObjectToString(Invocation.traversePath(fullResult, "health")),
+                    Invocation.convertObjectToString(Invocation.traversePath(results.getChildNodes().item(count), "health")), "Output is captured completely");
+        }
+    }
+
+    @Test
+    public void testCallbackFilter() throws Exception {
+        XmlPathFilter filter = XmlPathFilter.compile("results", "id", List.of("health"), "version");
+        Element result = filter.read(new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("1", result.getAttribute("version"), "Callback id is kept");
+        assertEquals(0, result.getElementsByTagName("header").getLength(), "Unreferenced elements are skipped");
+        assertEquals(2, result.getElementsByTagName("health").getLength(), "Outputs are kept");
+    }
+
+    @Test
+    public void testCaptureAll() throws Exception {
+        Element result = XmlPathFilter.CAPTURE_ALL.read(new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8)));
+        Element full = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8))).getDocumentElement();
+        assertEquals(Invocation.convertObjectToString(full), Invocation.convertObjectToString(result), "Complete document is kept");
+    }
+
+}